@@ -23,7 +23,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 
@@ -63,8 +62,6 @@ import com.google.api.services.compute.model.ZoneList;
 public class DataCenters implements DataCenterServices {
 	static private final Logger logger = Google.getLogger(DataCenters.class);
 
-    private static HashMap<String, String> zone2Region = new HashMap<String, String>();
-
 	private Google provider;
 
 	DataCenters(@Nonnull Google provider) {
@@ -152,31 +149,13 @@ public class DataCenters implements DataCenterServices {
             }
             dataCenters = new ArrayList<DataCenter>();
 
-            Compute gce = provider.getGoogleCompute();
-            Compute.Zones.List gceDataCenters = null;
-            try{
-                ZoneList zoneList = gce.zones().list(ctx.getAccountNumber()).execute();
-                if (null != zoneList) {
-                    List<Zone> dataCenterList = zoneList.getItems();
-                    for (int i=0; i < dataCenterList.size(); i++) {
-                        Zone current = dataCenterList.get(i);
-
-                        String region = current.getRegion().substring(current.getRegion().lastIndexOf("/") + 1);
-                        if (region.equals(providerRegionId)) {
-                            dataCenters.add(toDataCenter(current, (null != current.getDeprecated())));
-                        }
-
-                        zone2Region.put(current.getName(), region);
-                    }
+            for( Zone current : refreshZoneIndex(ctx) ) {
+                String region = current.getRegion().substring(current.getRegion().lastIndexOf("/") + 1);
+
+                if (region.equals(providerRegionId)) {
+                    dataCenters.add(toDataCenter(current, (null != current.getDeprecated())));
                 }
-    	    } catch (IOException ex) {
-    	    	logger.error("Failed to listDataCenters: " + ex.getMessage());
-    			if (ex.getClass() == GoogleJsonResponseException.class) {
-    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-    			} else
-    				throw new CloudException(CloudErrorType.COMMUNICATION, gceDataCenters.getLastStatusCode(), gceDataCenters.getLastStatusMessage(), "An error occurred while listing DataCenters");
-    		}
+            }
             if (cache != null) {
                 cache.put(ctx, dataCenters);
             }
@@ -231,14 +210,61 @@ public class DataCenters implements DataCenterServices {
 		}
 	}
 
+    /**
+     * Resolves the region of a zone from the shared zone index, refreshing the index with a single zone listing
+     * when the zone is not known yet.
+     * @param zoneName the zone name, optionally prefixed by "zones/"
+     * @return the region the zone belongs to
+     */
     public @Nonnull String getRegionFromZone(@Nonnull String zoneName) throws CloudException, InternalException{
-        if(zoneName.contains("zones/"))zoneName = zoneName.replace("zones/", "");
-        if(zone2Region == null || !zone2Region.containsKey(zoneName)){
-            for(Region r : listRegions()){
-                listDataCenters(r.getProviderRegionId());
+        ProviderContext ctx = provider.getContext();
+
+        if( ctx == null ) {
+            throw new NoContextException();
+        }
+        ZoneIndex index = ZoneIndex.getInstance(ctx.getAccountNumber(), provider.getIndexDirectory());
+        String region = index.getRegion(zoneName);
+
+        if( region == null ) {
+            synchronized( index ) {
+                region = index.getRegion(zoneName);
+                if( region == null && index.isRefreshAllowed() ) {
+                    refreshZoneIndex(ctx);
+                    region = index.getRegion(zoneName);
+                }
             }
         }
-        return zone2Region.get(zoneName);
+        return region;
+    }
+
+    /**
+     * Lists every zone of the project and publishes the result to the zone index.
+     * @return the zones
+     */
+    private @Nonnull List<Zone> refreshZoneIndex(@Nonnull final ProviderContext ctx) throws CloudException, InternalException {
+        final Compute gce = provider.getGoogleCompute();
+        List<Zone> zones = new PagedIterable<ZoneList, Zone>("listing DataCenters") {
+            @Override
+            protected ZoneList fetch(String pageToken) throws IOException {
+                return gce.zones().list(ctx.getAccountNumber()).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull ZoneList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Zone> toItems(@Nonnull ZoneList page) {
+                if( page.getItems() == null ) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+
+        ZoneIndex.getInstance(ctx.getAccountNumber(), provider.getIndexDirectory()).update(zones);
+        return zones;
     }
 
     private Region toRegion(com.google.api.services.compute.model.Region googleRegion){
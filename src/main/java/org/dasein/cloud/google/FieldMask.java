@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dasein.cloud.ProviderContext;
+
+/**
+ * Partial-response masks naming only the fields each dasein conversion reads, so list and get calls leave out
+ * metadata, licenses, ACLs and the like that would be downloaded and parsed for nothing. A mask must be kept in
+ * step with the conversion it serves: a field read but not requested simply comes back null. Gets whose result is
+ * modified and written back, such as Cloud SQL instance updates and firewall revokes, are never masked.
+ * <p>The mask of a resource can be replaced through the context property fieldMask.&lt;resource&gt;, for example
+ * fieldMask.instance, when a caller needs more of the resource than the conversion reads. A value of * asks for
+ * the full resource.</p>
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public enum FieldMask {
+    /**
+     * Instances, as read by ServerSupport.toVirtualMachine and toVmState.
+     */
+    INSTANCE("instance", "name,id,description,status,statusMessage,zone,creationTimestamp,disks(boot,source,deviceName),machineType,networkInterfaces(network,networkIP,accessConfigs/natIP),metadata/items,selfLink"),
+
+    /**
+     * Instances, as read when resolving the VM a disk is attached to.
+     */
+    INSTANCE_DISKS("instanceDisks", "name,id,disks(source,deviceName)"),
+
+    /**
+     * Disks, as read by DiskSupport.toVolume.
+     */
+    DISK("disk", "name,description,selfLink,zone,creationTimestamp,status,sizeGb,sourceSnapshotId,users"),
+
+    /**
+     * Disks, as read when resolving the image a VM was launched from.
+     */
+    DISK_IMAGE("diskImage", "selfLink,sourceImage"),
+
+    /**
+     * Images, as read by ImageSupport.toMachineImage.
+     */
+    IMAGE("image", "name,description,status,selfLink,deprecated/state,diskSizeGb"),
+
+    /**
+     * Snapshots, as read by SnapshotSupport.toSnapshot and toStatus.
+     */
+    SNAPSHOT("snapshot", "name,description,status,diskSizeGb,creationTimestamp,sourceDisk"),
+
+    /**
+     * Networks, as read by FirewallSupport.toFirewall and when grouping rules by network.
+     */
+    NETWORK("network", "name,description,selfLink"),
+
+    /**
+     * Firewall rules, as read by FirewallSupport.toFirewallRules.
+     */
+    FIREWALL_RULE("firewallRule", "name,network,sourceRanges,sourceTags,targetTags,allowed"),
+
+    /**
+     * Addresses, as read by IPAddressSupport.toIpAddress and toStatus.
+     */
+    ADDRESS("address", "name,address,region,status,users"),
+
+    /**
+     * Buckets, as read by DriveSupport.toBucket.
+     */
+    BUCKET("bucket", "name,location,timeCreated"),
+
+    /**
+     * Objects, as read by DriveSupport.toObject.
+     */
+    OBJECT("object", "name,bucket,updated,selfLink,size"),
+
+    /**
+     * Cloud SQL instances, as read by RDS.listDatabases, listDatabaseStatus, listAccess and the creation index.
+     */
+    DATABASE_INSTANCE("databaseInstance", "name,state,project,region,databaseVersion,maxDiskSize,ipAddresses/ipAddress,settings(tier,backupConfiguration/startTime,locationPreference/zone,ipConfiguration/authorizedNetworks/value)"),
+
+    /**
+     * Instance group managers, as read by ReplicapoolSupport.listConvergedInfrastructures.
+     */
+    INSTANCE_GROUP_MANAGER("instanceGroupManager", "id,name,description,selfLink"),
+
+    /**
+     * Instance group managers, as read when finding the VMs of a group by their base name.
+     */
+    INSTANCE_GROUP_BASE("instanceGroupBase", "baseInstanceName");
+
+    private final String resource;
+    private final String mask;
+
+    private FieldMask(@Nonnull String resource, @Nonnull String mask) {
+        this.resource = resource;
+        this.mask = mask;
+    }
+
+    /**
+     * @param provider the provider whose context may override the mask
+     * @return the mask for a get call, or null to request the full resource
+     */
+    public @Nullable String forGet(@Nonnull Google provider) {
+        ProviderContext ctx = provider.getContext();
+        Properties props = (ctx == null ? null : ctx.getCustomProperties());
+        String override = (props == null ? null : props.getProperty("fieldMask." + resource));
+
+        if( override == null || override.length() < 1 ) {
+            return mask;
+        }
+        return (override.equals("*") ? null : override);
+    }
+
+    /**
+     * @param provider the provider whose context may override the mask
+     * @return the mask for a list call, or null to request full resources
+     */
+    public @Nullable String forList(@Nonnull Google provider) {
+        String fields = forGet(provider);
+
+        return (fields == null ? null : "items(" + fields + "),nextPageToken");
+    }
+
+    /**
+     * @param provider the provider whose context may override the mask
+     * @param collection the name of the resource list in each scope, such as instances or disks
+     * @return the mask for an aggregatedList call, or null to request full resources
+     */
+    public @Nullable String forAggregatedList(@Nonnull Google provider, @Nonnull String collection) {
+        String fields = forGet(provider);
+
+        return (fields == null ? null : "items/*/" + collection + "(" + fields + "),nextPageToken");
+    }
+}
@@ -20,8 +20,6 @@
 package org.dasein.cloud.google;
 
 import java.io.*;
-import java.net.InetSocketAddress;
-import java.net.Proxy;
 import java.security.KeyStore;
 import java.security.PrivateKey;
 import java.text.ParseException;
@@ -30,7 +28,6 @@ import java.util.*;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
 import com.google.api.client.http.HttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.compute.Compute;
@@ -75,6 +72,16 @@ public class Google extends AbstractCloud {
 
     private static final String DSN_P12_CERT = "p12Certificate";
     private static final String DSN_SERVICE_ACCOUNT = "serviceAccount";
+    private static final String DSN_MAX_CONNECTIONS_PER_ROUTE = "maxConnectionsPerRoute";
+    private static final String DSN_MAX_CONNECTIONS = "maxConnections";
+    private static final String DSN_IDLE_CONNECTION_TIMEOUT = "idleConnectionTimeout";
+    private static final String DSN_UPLOAD_CHUNK_SIZE = "uploadChunkSize";
+    private static final String DSN_COMPOSITE_UPLOAD_THRESHOLD = "compositeUploadThreshold";
+    private static final String DSN_UPLOAD_PARALLELISM = "uploadParallelism";
+    private static final String DSN_INDEX_DIRECTORY = "indexDirectory";
+    private static final String DSN_SCOPE_PARALLELISM = "scopeParallelism";
+    private static final String DSN_SCOPE_TIMEOUT = "scopeTimeout";
+    private static final String DSN_LAUNCH_PARALLELISM = "launchParallelism";
 
     public final static String ISO8601_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
     public final static String ISO8601_NO_MS_PATTERN = "yyyy-MM-dd'T'HH:mm:ss'Z'";
@@ -146,7 +153,17 @@ public class Google extends AbstractCloud {
                 new ContextRequirements.Field(DSN_P12_CERT, "The p12 file for the account", ContextRequirements.FieldType.KEYPAIR, ContextRequirements.Field.X509, true),
                 new ContextRequirements.Field(DSN_SERVICE_ACCOUNT, "The service account email registered to the account", ContextRequirements.FieldType.TEXT, ContextRequirements.Field.ACCESS_KEYS, true),
                 new ContextRequirements.Field("proxyHost", "Proxy host", ContextRequirements.FieldType.TEXT, null, false),
-                new ContextRequirements.Field("proxyPort", "Proxy port", ContextRequirements.FieldType.TEXT, null, false)
+                new ContextRequirements.Field("proxyPort", "Proxy port", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_MAX_CONNECTIONS_PER_ROUTE, "Maximum pooled connections per host", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_MAX_CONNECTIONS, "Maximum pooled connections in total", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_IDLE_CONNECTION_TIMEOUT, "Seconds before an idle pooled connection is closed", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_UPLOAD_CHUNK_SIZE, "Size in MB of each chunk of a resumable upload", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_COMPOSITE_UPLOAD_THRESHOLD, "Size in MB above which uploads are split into parallel composite parts", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_UPLOAD_PARALLELISM, "Number of composite upload parts sent at once", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_INDEX_DIRECTORY, "Directory in which local indexes, such as the zone to region index, are saved between runs", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_SCOPE_PARALLELISM, "Number of regions or zones listed at once", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_SCOPE_TIMEOUT, "Seconds a region or zone is given to answer a listing", ContextRequirements.FieldType.TEXT, null, false),
+                new ContextRequirements.Field(DSN_LAUNCH_PARALLELISM, "Number of virtual machines launched at once by a bulk launch", ContextRequirements.FieldType.TEXT, null, false)
         );
     }
 
@@ -213,24 +230,84 @@ public class Google extends AbstractCloud {
         return (name == null ? "Google" : name);
     }
 
+    private int getIntProperty(@Nonnull String name, int defaultValue) {
+        ProviderContext ctx = getContext();
+        Properties props = (ctx == null ? null : ctx.getCustomProperties());
+        String value = (props == null ? null : props.getProperty(name));
+
+        if( value != null && value.length() > 0 ) {
+            try {
+                return Integer.parseInt(value);
+            }
+            catch( NumberFormatException ex ) {
+                logger.warn("Ignoring invalid value for " + name + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return the size in bytes of each chunk sent in a resumable upload
+     */
+    public int getUploadChunkSize() {
+        return Math.max(getIntProperty(DSN_UPLOAD_CHUNK_SIZE, 8), 1) * 1024 * 1024;
+    }
+
+    /**
+     * @return the file size in bytes above which uploads are split into parts uploaded in parallel and composed
+     */
+    public long getCompositeUploadThreshold() {
+        return Math.max(getIntProperty(DSN_COMPOSITE_UPLOAD_THRESHOLD, 256), 1) * 1024L * 1024L;
+    }
+
+    /**
+     * @return the number of composite upload parts sent at once
+     */
+    public int getUploadParallelism() {
+        return Math.max(getIntProperty(DSN_UPLOAD_PARALLELISM, 4), 1);
+    }
+
+    /**
+     * @return the number of regions or zones listed at once when a listing is spread across them
+     */
+    public int getScopeParallelism() {
+        return Math.max(getIntProperty(DSN_SCOPE_PARALLELISM, 8), 1);
+    }
+
+    /**
+     * @return the time in milliseconds a single region or zone is given to answer a listing
+     */
+    public long getScopeTimeout() {
+        return Math.max(getIntProperty(DSN_SCOPE_TIMEOUT, 60), 1) * 1000L;
+    }
+
+    /**
+     * @return the number of virtual machines launched at once when launching many with the same options
+     */
+    public int getLaunchParallelism() {
+        return Math.max(getIntProperty(DSN_LAUNCH_PARALLELISM, 10), 1);
+    }
+
+    /**
+     * @return the directory in which local indexes, such as the zone to region index, are persisted, or null to keep them in memory only
+     */
+    public @Nullable String getIndexDirectory() {
+        ProviderContext ctx = getContext();
+        Properties props = (ctx == null ? null : ctx.getCustomProperties());
+        String directory = (props == null ? null : props.getProperty(DSN_INDEX_DIRECTORY));
+
+        return (directory == null || directory.length() < 1 ? null : directory);
+    }
+
+    /**
+     * @return the pooled transport shared by every client using this context's proxy and pool settings
+     */
     private HttpTransport getTransport() {
-        HttpTransport transport = null;
-        int proxyPort = -1;
-        String proxyHost = null;
+        int maxPerRoute = getIntProperty(DSN_MAX_CONNECTIONS_PER_ROUTE, HttpTransportPool.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        int maxTotal = getIntProperty(DSN_MAX_CONNECTIONS, HttpTransportPool.DEFAULT_MAX_CONNECTIONS);
+        long idleTimeout = getIntProperty(DSN_IDLE_CONNECTION_TIMEOUT, (int)(HttpTransportPool.DEFAULT_IDLE_TIMEOUT / 1000L)) * 1000L;
 
-        List<ContextRequirements.Field> fields = getContextRequirements().getConfigurableValues();
-        for(ContextRequirements.Field f : fields )
-            if ((f.compatName == null) && (f.name.equals("proxyHost")))
-                proxyHost = getProxyHost();
-            else if ((f.compatName == null) && (f.name.equals("proxyPort")))
-                proxyPort = getProxyPort();
-
-        if ( proxyHost != null && proxyHost.length() > 0 && proxyPort > 0 ) {
-            Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress(proxyHost, proxyPort));
-            transport = new NetHttpTransport.Builder().setProxy(proxy).build();
-        } else
-            transport = new NetHttpTransport();
-        return transport;
+        return HttpTransportPool.getTransport(getProxyHost(), getProxyPort(), maxPerRoute, maxTotal, idleTimeout);
     }
 
     private GoogleCredential getCreds(HttpTransport transport, JsonFactory jsonFactory, Collection<String> scopes) throws Exception {
@@ -384,7 +461,7 @@ public class Google extends AbstractCloud {
         if (logger.isTraceEnabled())
             logger.trace("ENTER - " + Google.class.getName() + ".testContext()");
 
-        NetHttpTransport httpTransport2 = new NetHttpTransport();
+        HttpTransport httpTransport2 = getTransport();
 
         JacksonFactory jsonFactory2 = new JacksonFactory();
 
@@ -19,23 +19,19 @@
 
 package org.dasein.cloud.google;
 
-import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnull;
 
 import org.apache.log4j.Logger;
-import org.dasein.cloud.CloudErrorType;
 import org.dasein.cloud.CloudException;
 import org.dasein.cloud.InternalException;
 import org.dasein.cloud.ProviderContext;
-import org.dasein.util.CalendarWrapper;
 
-import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.Operation;
 import com.google.api.services.replicapool.Replicapool;
-import com.google.api.services.replicapool.model.Operation.Error.Errors;
 import com.google.api.services.sqladmin.SQLAdmin;
-import com.google.api.services.sqladmin.model.OperationError;
 
 import org.dasein.cloud.google.GoogleOperationType;
 
@@ -56,87 +52,23 @@ public class GoogleMethod {
         this.provider = provider;
     }
 
-    public @Nonnull String getOperationTarget(@Nonnull ProviderContext ctx, @Nonnull Operation job, @Nonnull GoogleOperationType operationType, String regionId, String dataCenterId, boolean getLink)throws CloudException, InternalException{
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 20L);
-        while(timeout > System.currentTimeMillis()) {
-            if(job.getError() != null){
-                for(Operation.Error.Errors error : job.getError().getErrors()){
-                    throw new CloudException("An error occurred: " + error.getMessage());
-                }
-            }
-            else if(job.getStatus().equals("DONE")){
-                if(getLink) return job.getTargetLink();
-                else return job.getTargetLink().substring(job.getTargetLink().lastIndexOf("/") + 1);
-            }
+    /**
+     * Starts tracking a Compute operation without blocking the caller.
+     * @return a future completing with the finished operation
+     */
+    public @Nonnull Future<Operation> trackOperation(@Nonnull ProviderContext ctx, @Nonnull Operation job, @Nonnull GoogleOperationType operationType, String regionId, String dataCenterId) throws CloudException, InternalException {
+        return OperationTracker.getInstance().track(provider.getGoogleCompute(), ctx.getAccountNumber(), job, operationType, regionId, dataCenterId);
+    }
 
-            try{
-                Thread.sleep(1000L);
-            }
-            catch(InterruptedException ignore){}
-
-            try{
-                Compute gce = provider.getGoogleCompute();
-                switch(operationType){
-                    case GLOBAL_OPERATION:{
-                        job = gce.globalOperations().get(ctx.getAccountNumber(), job.getName()).execute();
-                        break;
-                    }
-                    case REGION_OPERATION:{
-                        job = gce.regionOperations().get(ctx.getAccountNumber(), regionId, job.getName()).execute();
-                        break;
-                    }
-                    case ZONE_OPERATION:{
-                        job = gce.zoneOperations().get(ctx.getAccountNumber(), dataCenterId, job.getName()).execute();
-                        break;
-                    }
-                }
-            }
-            catch(IOException ex){
-                logger.error(ex.getMessage());
-            }
-        }
-        throw new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete");
+    public @Nonnull String getOperationTarget(@Nonnull ProviderContext ctx, @Nonnull Operation job, @Nonnull GoogleOperationType operationType, String regionId, String dataCenterId, boolean getLink)throws CloudException, InternalException{
+        job = waitFor(trackOperation(ctx, job, operationType, regionId, dataCenterId));
+        if(getLink) return job.getTargetLink();
+        else return job.getTargetLink().substring(job.getTargetLink().lastIndexOf("/") + 1);
     }
 
     public @Nonnull boolean getOperationComplete(ProviderContext ctx, Operation job, GoogleOperationType operationType, String regionId, String dataCenterId)throws CloudException, InternalException{
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 20L);
-        while(timeout > System.currentTimeMillis()) {
-            if(job.getError() != null){
-                for(Operation.Error.Errors error : job.getError().getErrors()){
-                    throw new CloudException("An error occurred: " + error.getMessage());
-                }
-            }
-            else if(job.getStatus().equals("DONE")){
-                return true;
-            }
-
-            try{
-                Thread.sleep(1000L);
-            }
-            catch(InterruptedException ignore){}
-
-            try{
-                Compute gce = provider.getGoogleCompute();
-                switch(operationType){
-                    case GLOBAL_OPERATION:{
-                        job = gce.globalOperations().get(ctx.getAccountNumber(), job.getName()).execute();
-                        break;
-                    }
-                    case REGION_OPERATION:{
-                        job = gce.regionOperations().get(ctx.getAccountNumber(), regionId, job.getName()).execute();
-                        break;
-                    }
-                    case ZONE_OPERATION:{
-                        job = gce.zoneOperations().get(ctx.getAccountNumber(), dataCenterId, job.getName()).execute();
-                        break;
-                    }
-                }
-            }
-            catch(IOException ex){
-
-            }
-        }
-        throw new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete");
+        waitFor(trackOperation(ctx, job, operationType, regionId, dataCenterId));
+        return true;
     }
 
     /*
@@ -145,28 +77,7 @@ public class GoogleMethod {
     public void getRDSOperationComplete(ProviderContext ctx, String operation) throws CloudException, InternalException {
         SQLAdmin sqlAdmin = provider.getGoogleSQLAdmin();
 
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 20L);
-        while(timeout > System.currentTimeMillis()) {
-            com.google.api.services.sqladmin.model.Operation instanceOperation = null;
-            try {
-                instanceOperation = sqlAdmin.operations().get(ctx.getAccountNumber(), operation).execute();
-            } catch ( IOException e ) {
-                logger.warn("getRDSOperationComplete Ignoring " + e.getMessage());
-            }
-
-            if (instanceOperation.getError() != null) {
-                for (OperationError error : instanceOperation.getError().getErrors()) {
-                    throw new CloudException("An error occurred: " + error.getCode() + " : " + error.getKind());
-                }
-            } else if (instanceOperation.getStatus().equals("DONE")) {
-                return;
-            }
-
-            try {
-                Thread.sleep(1000L);
-            } catch (InterruptedException ignore) {}
-        }
-        throw new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete");
+        waitFor(OperationTracker.getInstance().trackRDS(sqlAdmin, ctx.getAccountNumber(), operation, OperationTracker.DEFAULT_INITIAL_INTERVAL));
     }
 
     public void getRDSOperationCompleteLong(ProviderContext ctx, String operation) throws CloudException, InternalException {
@@ -180,33 +91,11 @@ public class GoogleMethod {
             throw new InternalException("operation cannot be null");
         }
 
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 20L);
-        while (timeout > System.currentTimeMillis()) {
-            com.google.api.services.sqladmin.model.Operation instanceOperation = null;
-            try {
-                instanceOperation = sqlAdmin.operations().get(ctx.getAccountNumber(), operation).execute();
-            } catch ( IOException e ) {
-                logger.warn("Ignoring sqlAdmin.operations().get() exception: " + e.getMessage());
-            }
-
-            if (null != instanceOperation) {
-                if (null != instanceOperation.getError()) {
-                    for (OperationError error : instanceOperation.getError().getErrors()) {
-                        throw new CloudException("An error occurred: " + error.getCode() + " : " + error.getKind());
-                    }
-                } else if (instanceOperation.getStatus().equals("DONE")) {
-                    return;
-                }
-            }
-            try {
-                Thread.sleep(30000L); // 30 seconds
-            } catch (InterruptedException ignore) {}
-        }
-        throw new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete");
+        // long running operations (instance creation, restores) start polling at a slower rate
+        waitFor(OperationTracker.getInstance().trackRDS(sqlAdmin, ctx.getAccountNumber(), operation, 5000L));
     }
 
     public @Nonnull boolean getCIOperationComplete(ProviderContext ctx, com.google.api.services.replicapool.model.Operation job, GoogleOperationType operationType, String regionId, String dataCenterId) throws CloudException, InternalException {
-        long timeout = System.currentTimeMillis() + (CalendarWrapper.MINUTE * 20L);
         Replicapool rp;
 
         try {
@@ -215,26 +104,25 @@ public class GoogleMethod {
             throw new InternalException("Cannot get Compute(google)");
         }
 
-        while (timeout > System.currentTimeMillis()) {
-            try {
-                job = rp.zoneOperations().get(ctx.getAccountNumber(), dataCenterId, job.getName()).execute();
-            } catch(IOException ex) { 
-                System.out.println(ex);
-            }
-
-            if (job.getError() != null) {
-                for (Errors error : job.getError().getErrors()) {
-                    throw new CloudException("An error occurred: " + error.getMessage());
-                }
-            }
-            else if (job.getStatus().equals("DONE")) {
-                return true;
-            }
-            try {
-                Thread.sleep(1000L);
-            } catch (InterruptedException ignore) { }
+        waitFor(OperationTracker.getInstance().trackCI(rp, ctx.getAccountNumber(), job, dataCenterId));
+        return true;
+    }
 
+    private <T> T waitFor(@Nonnull Future<T> operation) throws CloudException, InternalException {
+        try {
+            return operation.get();
+        } catch (InterruptedException ex) {
+            operation.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted while waiting for Operation to complete");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof CloudException) {
+                throw (CloudException)cause;
+            } else if (cause instanceof InternalException) {
+                throw (InternalException)cause;
+            }
+            throw new CloudException(cause);
         }
-        throw new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete");
     }
 }
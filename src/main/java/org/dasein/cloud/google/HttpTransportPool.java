@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.params.ConnRouteParams;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.log4j.Logger;
+
+import com.google.api.client.http.apache.ApacheHttpTransport;
+
+/**
+ * Keeps one pooled, keep-alive {@link ApacheHttpTransport} per proxy and pool configuration so that every
+ * Compute, Storage, SQL Admin and Replicapool client built for that configuration shares its connections.
+ * Idle connections are evicted in the background.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public final class HttpTransportPool {
+    static private final Logger logger = Google.getLogger(HttpTransportPool.class);
+
+    static public final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    static public final int DEFAULT_MAX_CONNECTIONS = 200;
+    static public final long DEFAULT_IDLE_TIMEOUT = 60000L;
+
+    static private final ConcurrentMap<String, PooledTransport> transports = new ConcurrentHashMap<String, PooledTransport>();
+    static private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-idle-connection-evictor");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    static {
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for( PooledTransport pooled : transports.values() ) {
+                    try {
+                        ClientConnectionManager manager = pooled.transport.getHttpClient().getConnectionManager();
+
+                        manager.closeExpiredConnections();
+                        manager.closeIdleConnections(pooled.idleTimeout, TimeUnit.MILLISECONDS);
+                    }
+                    catch( RuntimeException ex ) {
+                        logger.warn("Failed to evict idle connections: " + ex.getMessage());
+                    }
+                }
+            }
+        }, 30, 30, TimeUnit.SECONDS);
+    }
+
+    private HttpTransportPool() { }
+
+    /**
+     * Returns the shared transport for the given configuration, building it on first use.
+     * @param proxyHost the HTTP proxy host, or null for a direct connection
+     * @param proxyPort the HTTP proxy port, ignored unless a proxy host is given
+     * @param maxConnectionsPerRoute the maximum number of pooled connections to one host
+     * @param maxConnections the maximum number of pooled connections in total
+     * @param idleTimeout milliseconds after which an unused connection is closed
+     * @return the shared transport
+     */
+    static public @Nonnull ApacheHttpTransport getTransport(@Nullable String proxyHost, int proxyPort, int maxConnectionsPerRoute, int maxConnections, long idleTimeout) {
+        boolean proxied = (proxyHost != null && proxyHost.length() > 0 && proxyPort > 0);
+        String key = (proxied ? proxyHost + ":" + proxyPort : "direct") + "/" + maxConnectionsPerRoute + "/" + maxConnections + "/" + idleTimeout;
+        PooledTransport pooled = transports.get(key);
+
+        if( pooled == null ) {
+            // the same client ApacheHttpTransport builds by default, with the pool limits set on the connection manager
+            PoolingClientConnectionManager manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createSystemDefault());
+            HttpParams params = new BasicHttpParams();
+
+            manager.setMaxTotal(maxConnections);
+            manager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+            HttpConnectionParams.setStaleCheckingEnabled(params, false);
+            HttpConnectionParams.setSocketBufferSize(params, 8192);
+            if( proxied ) {
+                ConnRouteParams.setDefaultProxy(params, new HttpHost(proxyHost, proxyPort));
+            }
+            DefaultHttpClient client = new DefaultHttpClient(manager, params);
+
+            // retries are left to the Google client library
+            client.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+            PooledTransport created = new PooledTransport(new ApacheHttpTransport(client), idleTimeout);
+
+            pooled = transports.putIfAbsent(key, created);
+            if( pooled == null ) {
+                pooled = created;
+            }
+            else {
+                created.transport.getHttpClient().getConnectionManager().shutdown();
+            }
+        }
+        return pooled.transport;
+    }
+
+    static private class PooledTransport {
+        private final ApacheHttpTransport transport;
+        private final long idleTimeout;
+
+        PooledTransport(@Nonnull ApacheHttpTransport transport, long idleTimeout) {
+            this.transport = transport;
+            this.idleTimeout = idleTimeout;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import javax.annotation.Nonnull;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+/**
+ * Data joined into the items of a {@link PagedIterable}, such as the disks looked up for each listed VM. It is
+ * loaded on first use and then shared by every page and every iterator of the listing, so the lookup runs once
+ * per listing rather than once per page. Loading is synchronized; a failed load is not remembered and is retried
+ * by the next caller.
+ * @param <V> the type of the joined data
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public abstract class ListingJoin<V> {
+    private volatile V value;
+
+    /**
+     * Fetches the joined data.
+     * @return the data
+     * @throws CloudException an error occurred with the cloud provider
+     * @throws InternalException a local error occurred
+     */
+    protected abstract @Nonnull V load() throws CloudException, InternalException;
+
+    /**
+     * @return the joined data, loading it if no caller has yet
+     * @throws CloudException an error occurred with the cloud provider
+     * @throws InternalException a local error occurred
+     */
+    public @Nonnull V get() throws CloudException, InternalException {
+        V current = value;
+
+        if( current == null ) {
+            synchronized( this ) {
+                current = value;
+                if( current == null ) {
+                    current = load();
+                    value = current;
+                }
+            }
+        }
+        return current;
+    }
+}
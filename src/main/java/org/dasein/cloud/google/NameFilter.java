@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Builds Compute list filters matching a set of resource names, such as name eq (a|b|c), so that many named
+ * resources can be fetched with one list call instead of one get each. Long filters are rejected by the API, so
+ * a filter never names more than {@link #MAX_NAMES_PER_FILTER} resources.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public final class NameFilter {
+    /**
+     * The most names matched by a single filter.
+     */
+    static public final int MAX_NAMES_PER_FILTER = 50;
+
+    private NameFilter() { }
+
+    /**
+     * @param names the names to match, at most {@link #MAX_NAMES_PER_FILTER} of them
+     * @return a filter matching any of the names
+     */
+    static public @Nonnull String of(@Nonnull Collection<String> names) {
+        StringBuilder filter = new StringBuilder("name eq (");
+        boolean first = true;
+
+        for( String name : names ) {
+            if( !first ) {
+                filter.append('|');
+            }
+            filter.append(name);
+            first = false;
+        }
+        return filter.append(')').toString();
+    }
+
+    /**
+     * @param names the names to match
+     * @return filters that together match every name, each naming at most {@link #MAX_NAMES_PER_FILTER}
+     */
+    static public @Nonnull List<String> chunked(@Nonnull List<String> names) {
+        List<String> filters = new ArrayList<String>();
+
+        for( int start = 0; start < names.size(); start += MAX_NAMES_PER_FILTER ) {
+            filters.add(of(names.subList(start, Math.min(names.size(), start + MAX_NAMES_PER_FILTER))));
+        }
+        return filters;
+    }
+}
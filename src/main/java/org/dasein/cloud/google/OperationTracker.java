@@ -0,0 +1,563 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudErrorType;
+import org.dasein.cloud.CloudException;
+import org.dasein.util.CalendarWrapper;
+
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.Operation;
+import com.google.api.services.compute.model.OperationList;
+import com.google.api.services.replicapool.Replicapool;
+import com.google.api.services.sqladmin.SQLAdmin;
+import com.google.api.services.sqladmin.model.OperationError;
+
+/**
+ * Tracks pending Compute, Replicapool and SQL Admin operations on a shared scheduler instead of parking
+ * one caller thread per operation. Each tracked operation is handed back as a {@link Future} which completes
+ * with the final operation once it is DONE, or fails with a {@link CloudException} if the operation reports
+ * an error or does not finish before its deadline. Polling backs off from the initial interval towards the
+ * maximum interval while the operation remains pending. By default, pending Compute operations are coalesced
+ * so that each project and zone, region or global scope costs one list call per tick however many operations
+ * are waiting in it.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class OperationTracker {
+    static private final Logger logger = Google.getLogger(OperationTracker.class);
+
+    static public final long DEFAULT_TIMEOUT = CalendarWrapper.MINUTE * 20L;
+    static public final long DEFAULT_INITIAL_INTERVAL = 1000L;
+    static public final long DEFAULT_MAX_INTERVAL = 30000L;
+
+    static private final int SCHEDULER_THREADS = 4;
+    static private final double BACKOFF_FACTOR = 1.5;
+    static private final int MAX_NAMES_PER_FILTER = NameFilter.MAX_NAMES_PER_FILTER;
+
+    static private volatile OperationTracker instance;
+
+    /**
+     * @return the tracker shared by every provider in this JVM
+     */
+    static public @Nonnull OperationTracker getInstance() {
+        if( instance == null ) {
+            synchronized( OperationTracker.class ) {
+                if( instance == null ) {
+                    instance = new OperationTracker(Executors.newScheduledThreadPool(SCHEDULER_THREADS, new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(@Nonnull Runnable r) {
+                            Thread t = new Thread(r, "google-operation-tracker-" + count.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        }
+                    }));
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final boolean coalescing;
+    private final long timeout;
+    private final long initialInterval;
+    private final long maxInterval;
+    private final Map<String, CoalescedScope> scopes = new HashMap<String, CoalescedScope>();
+
+    public OperationTracker(@Nonnull ScheduledExecutorService scheduler) {
+        this(scheduler, true);
+    }
+
+    /**
+     * @param scheduler the scheduler running the polls
+     * @param coalescing true to poll pending Compute operations with one list call per project and scope,
+     *                   false to poll each operation with its own get call
+     */
+    public OperationTracker(@Nonnull ScheduledExecutorService scheduler, boolean coalescing) {
+        this(scheduler, coalescing, DEFAULT_TIMEOUT, DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL);
+    }
+
+    /**
+     * @param scheduler the scheduler running the polls
+     * @param coalescing true to coalesce pending Compute operations
+     * @param timeout how long an operation may take before it fails, in milliseconds
+     * @param initialInterval the first polling interval in milliseconds
+     * @param maxInterval the longest polling interval in milliseconds
+     */
+    OperationTracker(@Nonnull ScheduledExecutorService scheduler, boolean coalescing, long timeout, long initialInterval, long maxInterval) {
+        this.scheduler = scheduler;
+        this.coalescing = coalescing;
+        this.timeout = timeout;
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Tracks a zone, region or global Compute operation.
+     * @param gce the compute client used to poll the operation
+     * @param project the project owning the operation
+     * @param job the operation as returned by the call that started it
+     * @param operationType the scope of the operation
+     * @param regionId the region of a region operation
+     * @param dataCenterId the zone of a zone operation
+     * @return a future completing with the finished operation
+     */
+    public @Nonnull Future<Operation> track(@Nonnull final Compute gce, @Nonnull final String project, @Nonnull Operation job, @Nonnull final GoogleOperationType operationType, @Nullable final String regionId, @Nullable final String dataCenterId) {
+        PendingOperation<Operation> pending = newComputeOperation(gce, project, job, operationType, regionId, dataCenterId);
+
+        if( !coalescing ) {
+            return start(pending);
+        }
+        if( !pending.offer(null) ) {
+            String scope = (operationType == GoogleOperationType.ZONE_OPERATION ? dataCenterId : (operationType == GoogleOperationType.REGION_OPERATION ? regionId : null));
+            String key = project + "/" + operationType + "/" + scope;
+
+            synchronized( scopes ) {
+                CoalescedScope group = scopes.get(key);
+
+                if( group == null ) {
+                    group = new CoalescedScope(key, project, operationType, scope);
+                    scopes.put(key, group);
+                }
+                group.add(gce, job.getName(), pending);
+            }
+        }
+        return pending;
+    }
+
+    private @Nonnull PendingOperation<Operation> newComputeOperation(@Nonnull final Compute gce, @Nonnull final String project, @Nonnull Operation job, @Nonnull final GoogleOperationType operationType, @Nullable final String regionId, @Nullable final String dataCenterId) {
+        return new PendingOperation<Operation>(job, timeout, initialInterval, maxInterval) {
+            @Override
+            protected Operation refresh(Operation current) throws IOException {
+                switch( operationType ) {
+                    case GLOBAL_OPERATION:
+                        return gce.globalOperations().get(project, current.getName()).execute();
+                    case REGION_OPERATION:
+                        return gce.regionOperations().get(project, regionId, current.getName()).execute();
+                    default:
+                        return gce.zoneOperations().get(project, dataCenterId, current.getName()).execute();
+                }
+            }
+
+            @Override
+            protected boolean isDone(Operation current) {
+                return "DONE".equals(current.getStatus());
+            }
+
+            @Override
+            protected @Nullable CloudException getError(Operation current) {
+                if( current.getError() != null && current.getError().getErrors() != null ) {
+                    for( Operation.Error.Errors error : current.getError().getErrors() ) {
+                        return new CloudException("An error occurred: " + error.getMessage());
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Tracks a Replicapool zone operation.
+     * @param rp the replicapool client used to poll the operation
+     * @param project the project owning the operation
+     * @param job the operation as returned by the call that started it
+     * @param dataCenterId the zone of the operation
+     * @return a future completing with the finished operation
+     */
+    public @Nonnull Future<com.google.api.services.replicapool.model.Operation> trackCI(@Nonnull final Replicapool rp, @Nonnull final String project, @Nonnull com.google.api.services.replicapool.model.Operation job, @Nonnull final String dataCenterId) {
+        return start(new PendingOperation<com.google.api.services.replicapool.model.Operation>(job, timeout, initialInterval, maxInterval) {
+            @Override
+            protected com.google.api.services.replicapool.model.Operation refresh(com.google.api.services.replicapool.model.Operation current) throws IOException {
+                return rp.zoneOperations().get(project, dataCenterId, current.getName()).execute();
+            }
+
+            @Override
+            protected boolean isDone(com.google.api.services.replicapool.model.Operation current) {
+                return "DONE".equals(current.getStatus());
+            }
+
+            @Override
+            protected @Nullable CloudException getError(com.google.api.services.replicapool.model.Operation current) {
+                if( current.getError() != null && current.getError().getErrors() != null ) {
+                    for( com.google.api.services.replicapool.model.Operation.Error.Errors error : current.getError().getErrors() ) {
+                        return new CloudException("An error occurred: " + error.getMessage());
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Tracks a Cloud SQL operation. SQL operations are only known by name, so the first poll happens after
+     * the initial interval.
+     * @param sqlAdmin the SQL admin client used to poll the operation
+     * @param project the project owning the operation
+     * @param operation the name of the operation
+     * @param firstInterval the first polling interval in milliseconds
+     * @return a future completing with the finished operation
+     */
+    public @Nonnull Future<com.google.api.services.sqladmin.model.Operation> trackRDS(@Nonnull final SQLAdmin sqlAdmin, @Nonnull final String project, @Nonnull final String operation, long firstInterval) {
+        return start(new PendingOperation<com.google.api.services.sqladmin.model.Operation>(null, timeout, firstInterval, maxInterval) {
+            @Override
+            protected com.google.api.services.sqladmin.model.Operation refresh(com.google.api.services.sqladmin.model.Operation current) throws IOException {
+                return sqlAdmin.operations().get(project, operation).execute();
+            }
+
+            @Override
+            protected boolean isDone(com.google.api.services.sqladmin.model.Operation current) {
+                return "DONE".equals(current.getStatus());
+            }
+
+            @Override
+            protected @Nullable CloudException getError(com.google.api.services.sqladmin.model.Operation current) {
+                if( current.getError() != null && current.getError().getErrors() != null ) {
+                    for( OperationError error : current.getError().getErrors() ) {
+                        return new CloudException("An error occurred: " + error.getCode() + " : " + error.getKind());
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private @Nonnull <T> Future<T> start(@Nonnull PendingOperation<T> pending) {
+        if( pending.current == null ) {
+            pending.schedule();
+        }
+        else {
+            pending.run();
+        }
+        return pending;
+    }
+
+    /**
+     * All pending Compute operations of one project in one zone, region or the global scope. Each tick resolves
+     * them with a single filtered list call (per {@link #MAX_NAMES_PER_FILTER} names) rather than one get per
+     * operation.
+     */
+    private class CoalescedScope implements Runnable {
+        private final String key;
+        private final String project;
+        private final GoogleOperationType operationType;
+        private final String scope;
+        private final Map<String, PendingOperation<Operation>> pending = new ConcurrentHashMap<String, PendingOperation<Operation>>();
+
+        // guarded by scopes
+        private Compute gce;
+        private long interval = initialInterval;
+        private boolean scheduled;
+
+        CoalescedScope(@Nonnull String key, @Nonnull String project, @Nonnull GoogleOperationType operationType, @Nullable String scope) {
+            this.key = key;
+            this.project = project;
+            this.operationType = operationType;
+            this.scope = scope;
+        }
+
+        void add(@Nonnull Compute gce, @Nonnull String name, @Nonnull PendingOperation<Operation> operation) {
+            this.gce = gce;
+            pending.put(name, operation);
+            interval = initialInterval;
+            if( !scheduled ) {
+                scheduled = true;
+                scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            Compute client;
+
+            synchronized( scopes ) {
+                client = gce;
+            }
+            boolean changed = false;
+
+            try {
+                List<String> names = new ArrayList<String>(pending.keySet());
+
+                for( int i = 0; i < names.size(); i += MAX_NAMES_PER_FILTER ) {
+                    List<String> chunk = names.subList(i, Math.min(names.size(), i + MAX_NAMES_PER_FILTER));
+
+                    try {
+                        for( Operation latest : list(client, chunk) ) {
+                            PendingOperation<Operation> operation = pending.get(latest.getName());
+
+                            if( operation != null ) {
+                                Operation previous = operation.current;
+
+                                if( operation.offer(latest) || previous == null || !String.valueOf(previous.getStatus()).equals(latest.getStatus()) ) {
+                                    changed = true;
+                                }
+                            }
+                        }
+                    }
+                    catch( IOException ex ) {
+                        logger.warn("Ignoring error while polling operations in " + key + ": " + ex.getMessage());
+                    }
+                }
+                for( Map.Entry<String, PendingOperation<Operation>> entry : pending.entrySet() ) {
+                    if( entry.getValue().offer(null) ) {
+                        pending.remove(entry.getKey());
+                        changed = true;
+                    }
+                }
+            }
+            catch( RuntimeException ex ) {
+                logger.error("Failed to poll operations in " + key + ": " + ex.getMessage());
+            }
+            finally {
+                synchronized( scopes ) {
+                    if( pending.isEmpty() ) {
+                        scheduled = false;
+                        scopes.remove(key);
+                    }
+                    else {
+                        interval = (changed ? initialInterval : Math.min(maxInterval, (long)(interval * BACKOFF_FACTOR)));
+                        scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+
+        private @Nonnull List<Operation> list(@Nonnull Compute client, @Nonnull List<String> names) throws IOException {
+            if( names.size() == 1 ) {
+                // a lone operation is cheaper to fetch directly
+                Operation operation;
+
+                switch( operationType ) {
+                    case GLOBAL_OPERATION:
+                        operation = client.globalOperations().get(project, names.get(0)).execute();
+                        break;
+                    case REGION_OPERATION:
+                        operation = client.regionOperations().get(project, scope, names.get(0)).execute();
+                        break;
+                    default:
+                        operation = client.zoneOperations().get(project, scope, names.get(0)).execute();
+                        break;
+                }
+                return Collections.singletonList(operation);
+            }
+            String filter = NameFilter.of(names);
+            OperationList operations;
+
+            switch( operationType ) {
+                case GLOBAL_OPERATION:
+                    operations = client.globalOperations().list(project).setFilter(filter).execute();
+                    break;
+                case REGION_OPERATION:
+                    operations = client.regionOperations().list(project, scope).setFilter(filter).execute();
+                    break;
+                default:
+                    operations = client.zoneOperations().list(project, scope).setFilter(filter).execute();
+                    break;
+            }
+            if( operations == null || operations.getItems() == null ) {
+                return Collections.emptyList();
+            }
+            return operations.getItems();
+        }
+    }
+
+    /**
+     * A single tracked operation. It is both the task run by the scheduler and the future handed to the caller.
+     * @param <T> the operation model type
+     */
+    private abstract class PendingOperation<T> implements Future<T>, Runnable {
+        private final long deadline;
+        private final long maxInterval;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile T current;
+        private volatile long interval;
+        private volatile boolean cancelled;
+        private volatile Exception failure;
+        private volatile ScheduledFuture<?> next;
+
+        PendingOperation(@Nullable T job, long timeout, long initialInterval, long maxInterval) {
+            this.current = job;
+            this.deadline = System.currentTimeMillis() + timeout;
+            this.interval = initialInterval;
+            this.maxInterval = maxInterval;
+        }
+
+        protected abstract T refresh(@Nullable T current) throws IOException;
+
+        protected abstract boolean isDone(@Nonnull T current);
+
+        protected abstract @Nullable CloudException getError(@Nonnull T current);
+
+        @Override
+        public void run() {
+            if( isDone() ) {
+                return;
+            }
+            try {
+                if( current == null || next != null ) {
+                    try {
+                        current = refresh(current);
+                    }
+                    catch( IOException ex ) {
+                        logger.warn("Ignoring error while polling operation: " + ex.getMessage());
+                    }
+                }
+                if( !evaluate() ) {
+                    schedule();
+                }
+            }
+            catch( RuntimeException ex ) {
+                finish(ex);
+            }
+        }
+
+        /**
+         * Applies a polled state of this operation, as obtained by a coalesced list call.
+         * @param latest the latest state, or null if the operation was not part of the listing
+         * @return true if the operation has now finished
+         */
+        boolean offer(@Nullable T latest) {
+            if( latest != null ) {
+                current = latest;
+            }
+            try {
+                return evaluate();
+            }
+            catch( RuntimeException ex ) {
+                finish(ex);
+                return true;
+            }
+        }
+
+        /**
+         * Completes this operation if its current state is final or its deadline has passed.
+         * @return true if the operation has finished
+         */
+        private boolean evaluate() {
+            if( isDone() ) {
+                return true;
+            }
+            if( current != null ) {
+                CloudException error = getError(current);
+
+                if( error != null ) {
+                    finish(error);
+                    return true;
+                }
+                if( isDone(current) ) {
+                    finish(null);
+                    return true;
+                }
+            }
+            if( System.currentTimeMillis() >= deadline ) {
+                finish(new CloudException(CloudErrorType.COMMUNICATION, 408, "", "System timed out waiting for Operation to complete"));
+                return true;
+            }
+            return false;
+        }
+
+        private void schedule() {
+            long delay = interval;
+
+            interval = Math.min(maxInterval, (long)(interval * BACKOFF_FACTOR));
+            next = scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private void finish(@Nullable Exception error) {
+            failure = error;
+            done.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if( isDone() ) {
+                return false;
+            }
+            cancelled = true;
+            ScheduledFuture<?> f = next;
+
+            if( f != null ) {
+                f.cancel(false);
+            }
+            done.countDown();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            done.await();
+            return getResult();
+        }
+
+        @Override
+        public T get(long timeout, @Nonnull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if( !done.await(timeout, unit) ) {
+                throw new TimeoutException();
+            }
+            return getResult();
+        }
+
+        private T getResult() throws ExecutionException {
+            if( cancelled ) {
+                throw new CancellationException();
+            }
+            if( failure != null ) {
+                throw new ExecutionException(failure);
+            }
+            return current;
+        }
+    }
+}
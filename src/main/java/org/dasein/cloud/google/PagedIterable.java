@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudErrorType;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+
+/**
+ * Streams the items of a paged Google list call. Pages are requested lazily as the caller iterates, following
+ * each page's nextPageToken, and the next page is fetched in the background while the current one is consumed,
+ * so at most about one page is held in memory at a time.
+ * <p>Subclasses supply the request for a given page token and the conversion of a page into dasein items.
+ * Call {@link #start()} before handing the iterable out so that an error fetching the first page surfaces as a
+ * {@link CloudException} from the list method itself. Errors fetching or converting later pages are thrown from the
+ * iterator as a {@link PagedListingException} wrapping the {@link CloudException} or {@link InternalException}.</p>
+ * @param <P> the page type returned by the Google API
+ * @param <T> the item type produced from each page
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public abstract class PagedIterable<P, T> implements Iterable<T> {
+    static private final Logger logger = Google.getLogger(PagedIterable.class);
+
+    static private final ExecutorService prefetcher = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-page-prefetch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private final String description;
+    private volatile P firstPage;
+
+    /**
+     * @param description what is being listed, used in error messages (e.g. "listing Volumes")
+     */
+    public PagedIterable(@Nonnull String description) {
+        this.description = description;
+    }
+
+    /**
+     * Requests a single page.
+     * @param pageToken the token of the page to fetch, or null for the first page
+     * @return the page
+     * @throws IOException an error occurred executing the request
+     */
+    protected abstract @Nullable P fetch(@Nullable String pageToken) throws IOException;
+
+    /**
+     * @param page a page previously fetched
+     * @return the token of the following page, or null if this was the last page
+     */
+    protected abstract @Nullable String getNextPageToken(@Nonnull P page);
+
+    /**
+     * Converts a page into the items it contributes to the listing, leaving out anything that should be filtered.
+     * @param page a page previously fetched
+     * @return the items of the page
+     */
+    protected abstract @Nonnull Collection<T> toItems(@Nonnull P page) throws CloudException, InternalException;
+
+    /**
+     * Fetches the first page on the calling thread.
+     * @return this iterable
+     * @throws CloudException the first page could not be fetched
+     */
+    public @Nonnull PagedIterable<P, T> start() throws CloudException, InternalException {
+        firstPage = fetchPage(null);
+        return this;
+    }
+
+    /**
+     * Reads every page on the calling thread.
+     * @return all items of the listing
+     */
+    public @Nonnull List<T> toList() throws CloudException, InternalException {
+        List<T> items = new ArrayList<T>();
+        P page = takeFirstPage();
+
+        while( page != null ) {
+            items.addAll(toItems(page));
+            String token = getNextPageToken(page);
+
+            page = (token == null || token.length() < 1 ? null : fetchPage(token));
+        }
+        return items;
+    }
+
+    private @Nullable P takeFirstPage() throws CloudException, InternalException {
+        P page = firstPage;
+
+        firstPage = null;
+        return (page == null ? fetchPage(null) : page);
+    }
+
+    private @Nullable P fetchPage(@Nullable String pageToken) throws CloudException {
+        try {
+            return fetch(pageToken);
+        } catch (IOException ex) {
+            logger.error(ex.getMessage());
+            if (ex.getClass() == GoogleJsonResponseException.class) {
+                GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+            } else
+                throw new CloudException("An error occurred while " + description + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * @return an iterator over the listing; {@link Iterator#hasNext()} and {@link Iterator#next()} throw a
+     * {@link PagedListingException} if a page cannot be fetched or converted
+     */
+    @Override
+    public @Nonnull Iterator<T> iterator() {
+        return new PageIterator();
+    }
+
+    private class PageIterator implements Iterator<T> {
+        private Iterator<T> items = Collections.<T>emptyIterator();
+        private Future<P> next;
+        private boolean started;
+
+        @Override
+        public boolean hasNext() {
+            try {
+                if( !started ) {
+                    started = true;
+                    accept(takeFirstPage());
+                }
+                while( !items.hasNext() && next != null ) {
+                    Future<P> pending = next;
+
+                    next = null;
+                    accept(pending.get());
+                }
+                return items.hasNext();
+            }
+            catch( ExecutionException ex ) {
+                Throwable cause = ex.getCause();
+
+                throw new PagedListingException(cause instanceof CloudException ? (CloudException)cause : new CloudException(cause));
+            }
+            catch( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+                throw new PagedListingException(new InternalException("Interrupted while " + description));
+            }
+            catch( CloudException ex ) {
+                throw new PagedListingException(ex);
+            }
+            catch( InternalException ex ) {
+                throw new PagedListingException(ex);
+            }
+        }
+
+        private void accept(@Nullable P page) throws CloudException, InternalException {
+            if( page == null ) {
+                return;
+            }
+            final String token = getNextPageToken(page);
+
+            if( token != null && token.length() > 0 ) {
+                // fetch the following page while this one is being consumed
+                next = prefetcher.submit(new Callable<P>() {
+                    @Override
+                    public P call() throws Exception {
+                        return fetchPage(token);
+                    }
+                });
+            }
+            items = toItems(page).iterator();
+        }
+
+        @Override
+        public T next() {
+            if( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Listings are read only");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import javax.annotation.Nonnull;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+/**
+ * Thrown from the iterator of a {@link PagedIterable} when a page after the first cannot be fetched or converted.
+ * {@link java.util.Iterator} cannot throw checked exceptions, so the {@link CloudException} or
+ * {@link InternalException} that caused the failure is carried as the cause.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class PagedListingException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PagedListingException(@Nonnull CloudException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    public PagedListingException(@Nonnull InternalException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    /**
+     * @return the cloud error behind the failure, or null if it was an internal error
+     */
+    public CloudException getCloudException() {
+        return (getCause() instanceof CloudException ? (CloudException)getCause() : null);
+    }
+
+    /**
+     * @return the internal error behind the failure, or null if it was a cloud error
+     */
+    public InternalException getInternalException() {
+        return (getCause() instanceof InternalException ? (InternalException)getCause() : null);
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudErrorType;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+
+/**
+ * Runs the same list call against many regions or zones at once and gathers the results, so a listing takes as
+ * long as the slowest scope rather than the sum of all of them. At most a fixed number of scopes are in flight,
+ * and a scope that has not answered within its timeout is abandoned.
+ * <p>A scope that fails or times out does not fail the listing: the results of the other scopes are returned and
+ * the failures are logged and available from {@link #getFailures()}. Only when every scope fails is the error of
+ * the first one thrown.</p>
+ * @param <T> the item type produced for each scope
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public abstract class ScopeFanOut<T> {
+    static private final Logger logger = Google.getLogger(ScopeFanOut.class);
+
+    static private final ExecutorService workers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-scope-fanout-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private final String description;
+    private final int parallelism;
+    private final long timeout;
+    private final Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+
+    /**
+     * @param description what is being listed, used in log and error messages (e.g. "listing instance groups")
+     * @param parallelism the maximum number of scopes in flight at once
+     * @param timeout the time in milliseconds each scope is given to answer
+     */
+    public ScopeFanOut(@Nonnull String description, int parallelism, long timeout) {
+        this.description = description;
+        this.parallelism = Math.max(parallelism, 1);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Lists a single scope. Called concurrently from worker threads.
+     * @param scope the region or zone to list
+     * @return the items of the scope
+     * @throws IOException an error occurred executing the request
+     */
+    protected abstract @Nonnull Collection<T> fetch(@Nonnull String scope) throws IOException, CloudException, InternalException;
+
+    /**
+     * Lists every scope.
+     * @param scopes the regions or zones to list
+     * @return the items of every scope that answered, in the order of the scopes
+     * @throws CloudException every scope failed
+     */
+    public @Nonnull List<T> run(@Nonnull Collection<String> scopes) throws CloudException, InternalException {
+        CompletionService<Collection<T>> completion = new ExecutorCompletionService<Collection<T>>(workers);
+        Map<Future<Collection<T>>, String> running = new HashMap<Future<Collection<T>>, String>();
+        Map<Future<Collection<T>>, Long> deadlines = new HashMap<Future<Collection<T>>, Long>();
+        Map<String, Collection<T>> results = new HashMap<String, Collection<T>>();
+        Iterator<String> pending = scopes.iterator();
+
+        failures.clear();
+        try {
+            while( pending.hasNext() || !running.isEmpty() ) {
+                while( running.size() < parallelism && pending.hasNext() ) {
+                    final String scope = pending.next();
+                    Future<Collection<T>> future = completion.submit(new Callable<Collection<T>>() {
+                        @Override
+                        public Collection<T> call() throws Exception {
+                            return fetch(scope);
+                        }
+                    });
+
+                    running.put(future, scope);
+                    deadlines.put(future, System.currentTimeMillis() + timeout);
+                }
+                long wait = Collections.min(deadlines.values()) - System.currentTimeMillis();
+                Future<Collection<T>> done = completion.poll(Math.max(wait, 0L), TimeUnit.MILLISECONDS);
+
+                if( done == null ) {
+                    expire(running, deadlines);
+                    continue;
+                }
+                String scope = running.remove(done);
+
+                deadlines.remove(done);
+                if( scope == null ) {
+                    continue; // already abandoned after timing out
+                }
+                try {
+                    results.put(scope, done.get());
+                }
+                catch( ExecutionException e ) {
+                    failures.put(scope, e.getCause());
+                }
+            }
+        }
+        catch( InterruptedException e ) {
+            for( Future<Collection<T>> future : running.keySet() ) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new InternalException("Interrupted while " + description);
+        }
+        if( !failures.isEmpty() ) {
+            if( results.isEmpty() ) {
+                throw toException(failures.keySet().iterator().next(), failures.values().iterator().next());
+            }
+            for( Map.Entry<String, Throwable> failure : failures.entrySet() ) {
+                logger.warn("Skipping " + failure.getKey() + " while " + description + ": " + failure.getValue().getMessage());
+            }
+        }
+        List<T> items = new ArrayList<T>();
+
+        for( String scope : scopes ) {
+            Collection<T> scoped = results.get(scope);
+
+            if( scoped != null ) {
+                items.addAll(scoped);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @return the scopes left out of the last run, with the error each failed with
+     */
+    public @Nonnull Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    private void expire(@Nonnull Map<Future<Collection<T>>, String> running, @Nonnull Map<Future<Collection<T>>, Long> deadlines) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Future<Collection<T>>, Long>> it = deadlines.entrySet().iterator();
+
+        while( it.hasNext() ) {
+            Map.Entry<Future<Collection<T>>, Long> entry = it.next();
+
+            if( entry.getValue() <= now ) {
+                String scope = running.remove(entry.getKey());
+
+                it.remove();
+                entry.getKey().cancel(true);
+                failures.put(scope, new CloudException("No response from " + scope + " within " + (timeout / 1000L) + "s"));
+            }
+        }
+    }
+
+    private @Nonnull CloudException toException(@Nonnull String scope, @Nonnull Throwable cause) throws InternalException {
+        if( cause instanceof CloudException ) {
+            return (CloudException)cause;
+        }
+        if( cause instanceof InternalException ) {
+            throw (InternalException)cause;
+        }
+        if( cause.getClass() == GoogleJsonResponseException.class ) {
+            GoogleJsonResponseException gjre = (GoogleJsonResponseException)cause;
+
+            return new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+        }
+        return new CloudException("An error occurred while " + description + " in " + scope + ": " + cause.getMessage());
+    }
+}
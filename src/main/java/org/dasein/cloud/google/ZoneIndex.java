@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.log4j.Logger;
+
+import com.google.api.services.compute.model.Zone;
+
+/**
+ * The zone to region topology of a project. Each refresh builds a new map from one complete zone listing and
+ * publishes it in a single write, so readers never lock and never see a partially built index. When a directory is
+ * configured the index is also saved there, letting a fresh JVM resolve zones without calling the API.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class ZoneIndex {
+    static private final Logger logger = Google.getLogger(ZoneIndex.class);
+
+    /**
+     * Minimum time between refreshes triggered by lookups of unknown zones.
+     */
+    static private final long MIN_REFRESH_INTERVAL = 60000L;
+
+    static private final ConcurrentMap<String, ZoneIndex> indexes = new ConcurrentHashMap<String, ZoneIndex>();
+
+    /**
+     * @param project the project the zones belong to
+     * @param directory the directory the index is persisted in, or null to keep it in memory only
+     * @return the shared index of the project and directory, loaded from disk on first use if a saved copy exists
+     */
+    static @Nonnull ZoneIndex getInstance(@Nonnull String project, @Nullable String directory) {
+        String key = project + "|" + (directory == null ? "" : directory);
+        ZoneIndex index = indexes.get(key);
+
+        if( index == null ) {
+            // loaded before it is published, so no caller ever sees an empty index that a saved copy would later replace
+            ZoneIndex created = new ZoneIndex(directory == null ? null : new File(directory, "gce-zones-" + project + ".properties"));
+
+            index = indexes.putIfAbsent(key, created);
+            if( index == null ) {
+                index = created;
+            }
+        }
+        return index;
+    }
+
+    private final File file;
+    private volatile Map<String, String> zoneToRegion;
+    private volatile long lastRefresh;
+
+    private ZoneIndex(@Nullable File file) {
+        this.file = file;
+        this.zoneToRegion = load(file);
+    }
+
+    /**
+     * @param zone a zone name, optionally prefixed by "zones/" or given as a self link
+     * @return the name of the region the zone belongs to, or null if the zone is not in the index
+     */
+    @Nullable String getRegion(@Nonnull String zone) {
+        int idx = zone.lastIndexOf('/');
+
+        return zoneToRegion.get(idx < 0 ? zone : zone.substring(idx + 1));
+    }
+
+    /**
+     * @return true if an unknown zone may trigger a refresh from the API now
+     */
+    boolean isRefreshAllowed() {
+        return (System.currentTimeMillis() - lastRefresh >= MIN_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Replaces the index with the topology described by a complete zone listing.
+     * @param zones every zone of the project
+     */
+    void update(@Nonnull Collection<Zone> zones) {
+        Map<String, String> map = new HashMap<String, String>();
+
+        for( Zone zone : zones ) {
+            String region = zone.getRegion();
+
+            map.put(zone.getName(), region.substring(region.lastIndexOf('/') + 1));
+        }
+        zoneToRegion = Collections.unmodifiableMap(map);
+        lastRefresh = System.currentTimeMillis();
+        save(map);
+    }
+
+    static private @Nonnull Map<String, String> load(@Nullable File file) {
+        if( file == null || !file.exists() ) {
+            return Collections.emptyMap();
+        }
+        Properties saved = new Properties();
+
+        try {
+            InputStream input = new FileInputStream(file);
+
+            try {
+                saved.load(input);
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to read zone index " + file + ": " + e.getMessage());
+            return Collections.emptyMap();
+        }
+        Map<String, String> map = new HashMap<String, String>();
+
+        for( String zone : saved.stringPropertyNames() ) {
+            map.put(zone, saved.getProperty(zone));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private void save(@Nonnull Map<String, String> map) {
+        if( file == null ) {
+            return;
+        }
+        Properties saved = new Properties();
+
+        saved.putAll(map);
+        try {
+            File tmp = new File(file.getPath() + ".tmp");
+            OutputStream output = new FileOutputStream(tmp);
+
+            try {
+                saved.store(output, "GCE zone to region index");
+            }
+            finally {
+                output.close();
+            }
+            if( !tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file)) ) {
+                logger.warn("Unable to replace zone index " + file);
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to save zone index " + file + ": " + e.getMessage());
+        }
+    }
+}
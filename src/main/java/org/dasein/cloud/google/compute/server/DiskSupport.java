@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.*;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.compute.Compute;
@@ -36,9 +37,13 @@ import org.dasein.cloud.OperationNotSupportedException;
 import org.dasein.cloud.Requirement;
 import org.dasein.cloud.ResourceStatus;
 import org.dasein.cloud.compute.*;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.GoogleOperationType;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
+import org.dasein.cloud.google.ListingJoin;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.PagedListingException;
 import org.dasein.cloud.google.capabilities.GCEVolumeCapabilities;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.util.APITrace;
@@ -213,7 +218,7 @@ public class DiskSupport extends AbstractVolumeSupport {
         try{
             Compute gce = provider.getGoogleCompute();
             try{
-                DiskAggregatedList diskList = gce.disks().aggregatedList(provider.getContext().getAccountNumber()).setFilter("name eq " + volumeId).execute();
+                DiskAggregatedList diskList = gce.disks().aggregatedList(provider.getContext().getAccountNumber()).setFilter("name eq " + volumeId).setFields(FieldMask.DISK.forAggregatedList(provider, "disks")).execute();
                 Iterator<String> zones = diskList.getItems().keySet().iterator();
                 while(zones.hasNext()){
                     String zone = zones.next();
@@ -288,10 +293,17 @@ public class DiskSupport extends AbstractVolumeSupport {
 		List<ResourceStatus> status = new ArrayList<ResourceStatus>();
 
 		Iterable<Volume> volumes = listVolumes();
-		for (Volume volume: volumes) {
-			VolumeState state = volume.getCurrentState();
-			ResourceStatus resStatus = new ResourceStatus(volume.getProviderVolumeId(), state);
-			status.add(resStatus);
+		try {
+			for (Volume volume: volumes) {
+				VolumeState state = volume.getCurrentState();
+				ResourceStatus resStatus = new ResourceStatus(volume.getProviderVolumeId(), state);
+				status.add(resStatus);
+			}
+		} catch (PagedListingException e) {
+			if (e.getCloudException() != null) {
+				throw e.getCloudException();
+			}
+			throw e.getInternalException();
 		}
 		return status;
 	}
@@ -301,35 +313,53 @@ public class DiskSupport extends AbstractVolumeSupport {
 		return listVolumes(null);
 	}
 
+	/**
+	 * Streams the matching volumes page by page. Iterating past the first page throws a
+	 * {@link PagedListingException} if a later page cannot be read.
+	 */
 	@Override
-	public @Nonnull Iterable<Volume> listVolumes(VolumeFilterOptions options) throws InternalException, CloudException {
+	public @Nonnull Iterable<Volume> listVolumes(final VolumeFilterOptions options) throws InternalException, CloudException {
         APITrace.begin(getProvider(), "Volume.listVolumes");
         try{
-            ArrayList<Volume> volumes = new ArrayList<Volume>();
-            Compute gce = provider.getGoogleCompute();
-            try{
-                DiskAggregatedList diskList = gce.disks().aggregatedList(provider.getContext().getAccountNumber()).execute();
-                Iterator<String> zones = diskList.getItems().keySet().iterator();
-                while(zones.hasNext()){
-                    String zone = zones.next();
-                    if(diskList.getItems().get(zone) != null && diskList.getItems().get(zone).getDisks() != null){
-                        for(Disk disk : diskList.getItems().get(zone).getDisks()){
-                            Volume volume = toVolume(disk);
-                            if( volume != null && (options == null || options.matches(volume)) ) {
-                                volumes.add(volume);
+            final Compute gce = provider.getGoogleCompute();
+            // one instance listing serves every attached disk of the whole volume listing
+            final ListingJoin<Map<String, Instance>> instancesByDiskSource = new ListingJoin<Map<String, Instance>>() {
+                @Override
+                protected @Nonnull Map<String, Instance> load() throws CloudException, InternalException {
+                    return listInstancesByDiskSource(gce);
+                }
+            };
+            return new PagedIterable<DiskAggregatedList, Volume>("listing Volumes") {
+                @Override
+                protected DiskAggregatedList fetch(String pageToken) throws IOException {
+                    return gce.disks().aggregatedList(provider.getContext().getAccountNumber()).setFields(FieldMask.DISK.forAggregatedList(provider, "disks")).setPageToken(pageToken).execute();
+                }
+
+                @Override
+                protected String getNextPageToken(@Nonnull DiskAggregatedList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<Volume> toItems(@Nonnull DiskAggregatedList page) throws CloudException, InternalException {
+                    ArrayList<Volume> volumes = new ArrayList<Volume>();
+                    if (page.getItems() == null) {
+                        return volumes;
+                    }
+                    for (DisksScopedList scopedList : page.getItems().values()) {
+                        if (scopedList != null && scopedList.getDisks() != null) {
+                            for (Disk disk : scopedList.getDisks()) {
+                                boolean attached = disk.getUsers() != null && !disk.getUsers().isEmpty();
+                                Volume volume = toVolume(disk, attached ? instancesByDiskSource.get() : Collections.<String, Instance>emptyMap());
+                                if( volume != null && (options == null || options.matches(volume)) ) {
+                                    volumes.add(volume);
+                                }
                             }
                         }
                     }
+                    return volumes;
                 }
-                return volumes;
-	        } catch (IOException ex) {
-				logger.error(ex.getMessage());
-				if (ex.getClass() == GoogleJsonResponseException.class) {
-					GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-					throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-				} else
-	                throw new CloudException("An error occurred listing Volumes: " + ex.getMessage());
-			}
+            }.start();
         }
         finally{
             APITrace.end();
@@ -370,6 +400,17 @@ public class DiskSupport extends AbstractVolumeSupport {
     }
 
     public Volume toVolume(Disk disk) throws InternalException, CloudException{
+        return toVolume(disk, null);
+    }
+
+    /**
+     * Converts a disk, resolving the VM it is attached to from the given index. Without an index the disk's users
+     * field names the instance, which is then fetched on its own.
+     * @param disk the disk to convert
+     * @param instancesByDiskSource the instances of the project keyed by the self link of each attached disk, or null
+     * @return the volume
+     */
+    public Volume toVolume(@Nonnull Disk disk, @Nullable Map<String, Instance> instancesByDiskSource) throws InternalException, CloudException{
         Volume volume = new Volume();
         volume.setProviderVolumeId(disk.getName());
         volume.setName(disk.getName());
@@ -395,27 +436,83 @@ public class DiskSupport extends AbstractVolumeSupport {
         if(disk.getSourceSnapshotId() != null && !disk.getSourceSnapshotId().equals(""))volume.setProviderSnapshotId(disk.getSourceSnapshotId());
         volume.setTag("contentLink", disk.getSelfLink());
 
-        //In order to list volumes with the attached VM, VMs must be listed. Doing it for now but, ick!
-        Compute gce = provider.getGoogleCompute();
-        try{
-            //We only care about instances in the same zone as the disk
-            InstanceList list = gce.instances().list(provider.getContext().getAccountNumber(), disk.getZone().substring(disk.getZone().lastIndexOf("/") + 1)).execute();
-            if(list.getItems() != null){
-                for(Instance instance : list.getItems()){
-                    for(AttachedDisk attachedDisk : instance.getDisks()){
-                        if(attachedDisk.getSource().equals(disk.getSelfLink())){
-                            volume.setDeviceId(attachedDisk.getDeviceName());
-                            volume.setProviderVirtualMachineId(instance.getName() + "_" + instance.getId());
-                            break;
-                        }
-                    }
+        Instance instance = null;
+
+        if (instancesByDiskSource != null) {
+            instance = instancesByDiskSource.get(disk.getSelfLink());
+        }
+        else if (disk.getUsers() != null && !disk.getUsers().isEmpty()) {
+            instance = getUser(disk);
+        }
+        if (instance != null && instance.getDisks() != null) {
+            for (AttachedDisk attachedDisk : instance.getDisks()) {
+                if (disk.getSelfLink().equals(attachedDisk.getSource())) {
+                    volume.setDeviceId(attachedDisk.getDeviceName());
+                    volume.setProviderVirtualMachineId(instance.getName() + "_" + instance.getId());
+                    break;
                 }
             }
         }
-        catch(IOException ex){
-            logger.error(ex.getMessage());
+        return volume;
+    }
+
+    private @Nullable Instance getUser(@Nonnull Disk disk) throws CloudException, InternalException {
+        // users holds instance self links: .../projects/{project}/zones/{zone}/instances/{name}
+        String user = disk.getUsers().get(0);
+        String[] parts = user.split("/");
+
+        if (parts.length < 5) {
             return null;
         }
-        return volume;
+        try {
+            return provider.getGoogleCompute().instances().get(parts[parts.length - 5], parts[parts.length - 3], parts[parts.length - 1]).setFields(FieldMask.INSTANCE_DISKS.forGet(provider)).execute();
+        }
+        catch (IOException ex) {
+            logger.error(ex.getMessage());
+            if (ex.getClass() == GoogleJsonResponseException.class) {
+                GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+                if (gjre.getStatusCode() == 404) {
+                    return null;
+                }
+                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+            } else
+                throw new CloudException("An error occurred getting the instance " + user + ": " + ex.getMessage());
+        }
+    }
+
+    private @Nonnull Map<String, Instance> listInstancesByDiskSource(@Nonnull final Compute gce) throws CloudException, InternalException {
+        Map<String, Instance> instances = new HashMap<String, Instance>();
+        List<Instance> instanceList = new PagedIterable<InstanceAggregatedList, Instance>("listing VMs") {
+            @Override
+            protected InstanceAggregatedList fetch(String pageToken) throws IOException {
+                return gce.instances().aggregatedList(provider.getContext().getAccountNumber()).setFields(FieldMask.INSTANCE_DISKS.forAggregatedList(provider, "instances")).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull InstanceAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Instance> toItems(@Nonnull InstanceAggregatedList page) {
+                List<Instance> items = new ArrayList<Instance>();
+                if (page.getItems() != null) {
+                    for (InstancesScopedList scopedList : page.getItems().values()) {
+                        if (scopedList.getInstances() != null) {
+                            items.addAll(scopedList.getInstances());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+        for (Instance instance : instanceList) {
+            if (instance.getDisks() != null) {
+                for (AttachedDisk attachedDisk : instance.getDisks()) {
+                    instances.put(attachedDisk.getSource(), instance);
+                }
+            }
+        }
+        return instances;
     }
 }
@@ -37,9 +37,12 @@ import com.google.api.services.compute.model.Operation;
 import org.apache.log4j.Logger;
 import org.dasein.cloud.*;
 import org.dasein.cloud.compute.*;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.GoogleOperationType;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.PagedListingException;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.capabilities.GCEImageCapabilities;
 import org.dasein.cloud.util.APITrace;
@@ -127,7 +130,7 @@ public class ImageSupport extends AbstractImageSupport<Google> {
             Image image;
             try{
                 String[] parts = providerImageId.split("_");
-                image = gce.images().get(parts[0], parts[1]).execute();
+                image = gce.images().get(parts[0], parts[1]).setFields(FieldMask.IMAGE.forGet(provider)).execute();
             } catch (IOException ex) {
                 if (ex.getMessage().contains("was not found")) // could use 404, but in theory 404 could appear in a image name.
                     return null;
@@ -163,36 +166,57 @@ public class ImageSupport extends AbstractImageSupport<Google> {
 		return status;
 	}
 
+	/**
+	 * Streams the images of the project page by page. Iterating past the first page throws a
+	 * {@link PagedListingException} if a later page cannot be read.
+	 */
 	@Override
 	public @Nonnull Iterable<MachineImage> listImages(ImageFilterOptions options) throws CloudException, InternalException {
 	    APITrace.begin(getProvider(), "Image.listImages");
         try{
-            ArrayList<MachineImage> images = new ArrayList<MachineImage>();
-            try{
-                Compute gce = provider.getGoogleCompute();
-                ImageList imgList = gce.images().list(provider.getContext().getAccountNumber()).execute();
-                //TODO: Add filter options
-                if(imgList.getItems() != null){
-                    for(Image img : imgList.getItems()){
-                        MachineImage image = toMachineImage(img);
-                        if(image != null)images.add(image);
-                    }
-                }
-		    } catch (IOException ex) {
-				logger.error("An error occurred while listing images: " + ex.getMessage());
-				if (ex.getClass() == GoogleJsonResponseException.class) {
-					GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-					throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-				} else
-					throw new CloudException(ex.getMessage());
-			}
-            return images;
+            Compute gce = provider.getGoogleCompute();
+            //TODO: Add filter options
+            return listProjectImages(gce, provider.getContext().getAccountNumber(), null, null).start();
         }
         finally {
             APITrace.end();
         }
     }
 
+    /**
+     * Pages through the usable images of one project.
+     * @param gce the compute client
+     * @param project the project owning the images
+     * @param regex an optional regular expression the image must match, see {@link #imageMatches(MachineImage, Pattern, String)}
+     * @param pattern the compiled form of regex
+     * @return the images of the project
+     */
+    private @Nonnull PagedIterable<ImageList, MachineImage> listProjectImages(@Nonnull final Compute gce, @Nonnull final String project, @Nullable final String regex, @Nullable final Pattern pattern) {
+        return new PagedIterable<ImageList, MachineImage>("listing images") {
+            @Override
+            protected ImageList fetch(String pageToken) throws IOException {
+                return gce.images().list(project).setFields(FieldMask.IMAGE.forList(provider)).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull ImageList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<MachineImage> toItems(@Nonnull ImageList page) {
+                ArrayList<MachineImage> images = new ArrayList<MachineImage>();
+                if(page.getItems() != null){
+                    for(Image img : page.getItems()){
+                        MachineImage image = toMachineImage(img);
+                        if(image != null && (regex == null || imageMatches(image, pattern, regex)))images.add(image);
+                    }
+                }
+                return images;
+            }
+        };
+    }
+
 	@Override
 	public @Nonnull Iterable<MachineImage> listMachineImages() throws CloudException, InternalException {
 		return listImages(ImageClass.MACHINE);
@@ -360,43 +384,23 @@ public class ImageSupport extends AbstractImageSupport<Google> {
             pattern = Pattern.compile(options.getRegex());
         }
         try {
-            try {
-                Compute gce = provider.getGoogleCompute();
-                Platform platform = options.getPlatform();
-                ImageList imgList;
-                if (platform != null) {
-                    String imageProject = ImageProject.getImageProject(platform);
-                    imgList = gce.images().list(imageProject).execute();
-                    if (imgList != null && imgList.getItems() != null) {
-                        for (Image img : imgList.getItems()) {
-                            MachineImage image = toMachineImage(img);
-
-                            if (image != null) 
-                                if ((options.getRegex() == null) || (imageMatches(image, pattern, options.getRegex())))
-                                    images.add(image);
-                        }
-                    }
-                } else {
-                    for (ImageProject imageProject : ImageProject.values()) {
-                        try{
-                            imgList = gce.images().list(imageProject.projectName).execute();
-                            if (imgList != null && imgList.getItems() != null) {
-                                for (Image img : imgList.getItems()) {
-                                    MachineImage image = toMachineImage(img);
-
-                                    if (image != null) {
-                                        if ((options.getRegex() == null) || (imageMatches(image, pattern, options.getRegex())))
-                                            images.add(image);
-                                    }
-                                }
-                            }
-                        } catch(IOException ex) {
-                            /*Don't really care, likely means the image project doesn't exist*/
-                        }
+            Compute gce = provider.getGoogleCompute();
+            Platform platform = options.getPlatform();
+            if (platform != null) {
+                String imageProject = ImageProject.getImageProject(platform);
+                try {
+                    images.addAll(listProjectImages(gce, imageProject, options.getRegex(), pattern).toList());
+                } catch(CloudException ex) {
+                    /* Don't really care, likely means the image project doesn't exist */
+                }
+            } else {
+                for (ImageProject imageProject : ImageProject.values()) {
+                    try{
+                        images.addAll(listProjectImages(gce, imageProject.projectName, options.getRegex(), pattern).toList());
+                    } catch(CloudException ex) {
+                        /*Don't really care, likely means the image project doesn't exist*/
                     }
                 }
-            } catch(IOException ex) {
-                /* Don't really care, likely means the image project doesn't exist */
             }
 
             return images;
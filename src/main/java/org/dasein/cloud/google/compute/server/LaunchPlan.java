@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.compute.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dasein.cloud.compute.VMLaunchOptions;
+
+/**
+ * What a launch template resolves to: the machine type, boot image and network links and the root disk size. These
+ * are the same for every launch with the same data center, product, image and vlan, so a plan is resolved once and
+ * reused by later launches of the template until it expires, instead of looking each of them up again per VM. A plan
+ * is dropped when a launch made from it fails because a resource it points at is no longer there.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class LaunchPlan {
+    static private final long TIMEOUT = 15L * 60L * 1000L;
+
+    static private final ConcurrentMap<String, LaunchPlan> plans = new ConcurrentHashMap<String, LaunchPlan>();
+
+    /**
+     * @param project the project the VMs are launched in
+     * @param options the launch options
+     * @return the key shared by every launch of the same template
+     */
+    static @Nonnull String getKey(@Nonnull String project, @Nonnull VMLaunchOptions options) {
+        return project + "/" + options.getDataCenterId() + "/" + options.getStandardProductId() + "/" + options.getMachineImageId() + "/" + options.getVlanId();
+    }
+
+    /**
+     * @param key the key of a launch template
+     * @return the plan resolved for the template, or null if there is none or it has expired
+     */
+    static @Nullable LaunchPlan get(@Nonnull String key) {
+        LaunchPlan plan = plans.get(key);
+
+        if( plan != null && plan.expires < System.currentTimeMillis() ) {
+            plans.remove(key, plan);
+            return null;
+        }
+        return plan;
+    }
+
+    static void put(@Nonnull String key, @Nonnull LaunchPlan plan) {
+        plans.put(key, plan);
+    }
+
+    static void remove(@Nonnull String key) {
+        plans.remove(key);
+    }
+
+    private final String machineType;
+    private final String sourceImage;
+    private final long diskSizeGb;
+    private final boolean windows;
+    private final String network;
+    private final long expires;
+
+    LaunchPlan(@Nonnull String machineType, @Nonnull String sourceImage, long diskSizeGb, boolean windows, @Nonnull String network) {
+        this.machineType = machineType;
+        this.sourceImage = sourceImage;
+        this.diskSizeGb = diskSizeGb;
+        this.windows = windows;
+        this.network = network;
+        this.expires = System.currentTimeMillis() + TIMEOUT;
+    }
+
+    /**
+     * @return the self link of the machine type
+     */
+    @Nonnull String getMachineType() {
+        return machineType;
+    }
+
+    /**
+     * @return the self link of the boot image
+     */
+    @Nonnull String getSourceImage() {
+        return sourceImage;
+    }
+
+    /**
+     * @return the size of the root disk in GB
+     */
+    long getDiskSizeGb() {
+        return diskSizeGb;
+    }
+
+    /**
+     * @return true if the boot image is a Windows image
+     */
+    boolean isWindows() {
+        return windows;
+    }
+
+    /**
+     * @return the self link of the network
+     */
+    @Nonnull String getNetwork() {
+        return network;
+    }
+
+    /**
+     * Tells whether an error message names the machine type, image or network of this plan. Compute errors name a
+     * resource by its path from projects/ on, such as "The resource 'projects/p/global/images/i' was not found".
+     * @param message the error message
+     * @return true if the message refers to a resource this plan points at
+     */
+    boolean isReferencedBy(@Nullable String message) {
+        if( message == null ) {
+            return false;
+        }
+        for( String link : new String[] { machineType, sourceImage, network } ) {
+            int idx = link.indexOf("projects/");
+
+            if( message.contains(idx < 0 ? link : link.substring(idx)) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -21,14 +21,21 @@ package org.dasein.cloud.google.compute.server;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
+import org.dasein.cloud.google.FieldMask;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.ScopeFanOut;
 import org.dasein.cloud.google.capabilities.GCEReplicapoolCapabilities;
 import org.apache.log4j.Logger;
 import org.dasein.cloud.CloudException;
@@ -39,14 +46,14 @@ import org.dasein.cloud.ci.CIFilterOptions;
 import org.dasein.cloud.ci.CIProvisionOptions;
 import org.dasein.cloud.ci.ConvergedInfrastructure;
 import org.dasein.cloud.ci.ConvergedInfrastructureState;
-import org.dasein.cloud.dc.DataCenter;
-import org.dasein.cloud.dc.Region;
 import org.dasein.cloud.util.APITrace;
 
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.Instance;
 import com.google.api.services.compute.model.InstanceList;
 import com.google.api.services.compute.model.NetworkInterface;
+import com.google.api.services.compute.model.Zone;
+import com.google.api.services.compute.model.ZoneList;
 import com.google.api.services.replicapool.Replicapool;
 import com.google.api.services.replicapool.model.InstanceGroupManager;
 import com.google.api.services.replicapool.model.InstanceGroupManagerList;
@@ -89,34 +96,63 @@ public class ReplicapoolSupport extends AbstractConvergedInfrastructureSupport <
     @Override
     public Iterable<ConvergedInfrastructure> listConvergedInfrastructures(CIFilterOptions options) throws CloudException, InternalException {
         APITrace.begin(getProvider(), "GoogleConvergedInfrastructure.listConvergedInfrastructures");
-        List<ConvergedInfrastructure> convergedInfrastrutures = new ArrayList<ConvergedInfrastructure>();
         try {
-             Replicapool rp = provider.getGoogleReplicapool();
+            final Replicapool rp = provider.getGoogleReplicapool();
+            final String project = provider.getContext().getAccountNumber();
+            final Map<String, String> zoneToRegion = listZones(provider.getGoogleCompute(), project);
 
-             InstanceGroupManagerList result = null;
-             try {
-                 for (Region region : provider.getDataCenterServices().listRegions()) {
-                     String regionName = region.getProviderRegionId();
-                     for (DataCenter dataCenter : provider.getDataCenterServices().listDataCenters(regionName)) {
-                         String dataCenterId = dataCenter.getProviderDataCenterId();
-                         result = rp.instanceGroupManagers().list(provider.getContext().getAccountNumber(), dataCenterId).execute(); //provider.getContext().getRegionId()
-                         if (null != result.getItems()) {
-                             for (InstanceGroupManager item : result.getItems()) {
-                                 ConvergedInfrastructure ci = ConvergedInfrastructure.getInstance(provider.getContext().getAccountNumber(), 
-                                         regionName, dataCenterId, item.getId().toString(), ConvergedInfrastructureState.RUNNING, item.getName(), item.getDescription(), item.getSelfLink());
-
-                                 convergedInfrastrutures.add(ci);
-                             }
-                         }
-                     }
-                 }
-             } catch ( IOException e ) {
-                 e.printStackTrace();
-             }
+            // replicapool has no aggregated listing, so every zone is listed at once and the results gathered
+            return new ScopeFanOut<ConvergedInfrastructure>("listing instance group managers", provider.getScopeParallelism(), provider.getScopeTimeout()) {
+                @Override
+                protected @Nonnull Collection<ConvergedInfrastructure> fetch(@Nonnull String dataCenterId) throws IOException {
+                    List<ConvergedInfrastructure> convergedInfrastrutures = new ArrayList<ConvergedInfrastructure>();
+                    InstanceGroupManagerList result = rp.instanceGroupManagers().list(project, dataCenterId).setFields(FieldMask.INSTANCE_GROUP_MANAGER.forList(provider)).execute();
+
+                    if (null != result.getItems()) {
+                        for (InstanceGroupManager item : result.getItems()) {
+                            ConvergedInfrastructure ci = ConvergedInfrastructure.getInstance(project,
+                                    zoneToRegion.get(dataCenterId), dataCenterId, item.getId().toString(), ConvergedInfrastructureState.RUNNING, item.getName(), item.getDescription(), item.getSelfLink());
+
+                            convergedInfrastrutures.add(ci);
+                        }
+                    }
+                    return convergedInfrastrutures;
+                }
+            }.run(zoneToRegion.keySet());
         } finally{
             APITrace.end();
         }
-        return convergedInfrastrutures;
+    }
+
+    /**
+     * @return the region of every zone of the project, keyed by zone name
+     */
+    private @Nonnull Map<String, String> listZones(@Nonnull final Compute gce, @Nonnull final String project) throws CloudException, InternalException {
+        Map<String, String> zoneToRegion = new LinkedHashMap<String, String>();
+        List<Zone> zones = new PagedIterable<ZoneList, Zone>("listing zones") {
+            @Override
+            protected ZoneList fetch(String pageToken) throws IOException {
+                return gce.zones().list(project).setFields("items(name,region),nextPageToken").setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull ZoneList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Zone> toItems(@Nonnull ZoneList page) {
+                if( page.getItems() == null ) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+
+        for( Zone zone : zones ) {
+            zoneToRegion.put(zone.getName(), zone.getRegion().substring(zone.getRegion().lastIndexOf('/') + 1));
+        }
+        return zoneToRegion;
     }
 
     @Override
@@ -134,7 +170,7 @@ public class ReplicapoolSupport extends AbstractConvergedInfrastructureSupport <
                 }
             }
             
-            InstanceGroupManager pool = rp.instanceGroupManagers().get(provider.getContext().getAccountNumber(), datacenterId, inCIId).execute();
+            InstanceGroupManager pool = rp.instanceGroupManagers().get(provider.getContext().getAccountNumber(), datacenterId, inCIId).setFields(FieldMask.INSTANCE_GROUP_BASE.forGet(provider)).execute();
             String baseInstanceName = pool.getBaseInstanceName();
             InstanceList result = gce.instances().list(provider.getContext().getAccountNumber(), datacenterId).execute();
             for (Instance instance : result.getItems()) {
@@ -167,7 +203,7 @@ public class ReplicapoolSupport extends AbstractConvergedInfrastructureSupport <
                 }
             }
             
-            InstanceGroupManager pool = rp.instanceGroupManagers().get(provider.getContext().getAccountNumber(), datacenterId, inCIId).execute();
+            InstanceGroupManager pool = rp.instanceGroupManagers().get(provider.getContext().getAccountNumber(), datacenterId, inCIId).setFields(FieldMask.INSTANCE_GROUP_BASE.forGet(provider)).execute();
             String baseInstanceName = pool.getBaseInstanceName();
             InstanceList result = gce.instances().list(provider.getContext().getAccountNumber(), datacenterId).execute();
             for (Instance instance : result.getItems()) {
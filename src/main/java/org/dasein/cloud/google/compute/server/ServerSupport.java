@@ -55,13 +55,23 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -91,10 +101,14 @@ import org.dasein.cloud.compute.VirtualMachineProductFilterOptions;
 import org.dasein.cloud.compute.VmState;
 import org.dasein.cloud.compute.VolumeAttachment;
 import org.dasein.cloud.compute.VolumeCreateOptions;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
+import org.dasein.cloud.google.ListingJoin;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.PagedListingException;
 import org.dasein.cloud.google.capabilities.GCEInstanceCapabilities;
 import org.dasein.cloud.network.RawAddress;
 import org.dasein.cloud.network.VLAN;
@@ -121,12 +135,18 @@ import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.repackaged.org.apache.commons.codec.binary.Base64;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.AccessConfig;
+import com.google.api.services.compute.model.Address;
+import com.google.api.services.compute.model.AddressAggregatedList;
+import com.google.api.services.compute.model.AddressesScopedList;
 import com.google.api.services.compute.model.AttachedDisk;
 import com.google.api.services.compute.model.AttachedDiskInitializeParams;
 import com.google.api.services.compute.model.Disk;
+import com.google.api.services.compute.model.DiskAggregatedList;
+import com.google.api.services.compute.model.DisksScopedList;
 import com.google.api.services.compute.model.Image;
 import com.google.api.services.compute.model.Instance;
 import com.google.api.services.compute.model.InstanceAggregatedList;
+import com.google.api.services.compute.model.InstancesScopedList;
 import com.google.api.services.compute.model.MachineType;
 import com.google.api.services.compute.model.MachineTypeAggregatedList;
 import com.google.api.services.compute.model.MachineTypeList;
@@ -143,6 +163,18 @@ public class ServerSupport extends AbstractVMSupport<Google> {
 
 	private Google provider;
 	static private final Logger logger = Google.getLogger(ServerSupport.class);
+
+    static private final ExecutorService launchers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-launch-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
 	private Cache<MachineTypeAggregatedList> machineTypesCache;
 	public ServerSupport(Google provider){
         super(provider);
@@ -217,15 +249,102 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         }
     }
 
+    /**
+     * Finds the zone of an instance, from the location index when it is recorded there and otherwise with a
+     * filtered aggregated listing that returns only the name and zone of the match.
+     * @param gce the compute client
+     * @param vmName the name of the instance
+     * @return the zone of the instance, or null if no instance has that name
+     */
+    private @Nullable String findZone(@Nonnull final Compute gce, @Nonnull final String vmName) throws CloudException, InternalException {
+        final String project = provider.getContext().getAccountNumber();
+        VmLocationIndex index = VmLocationIndex.getInstance(project);
+        String zone = index.getZone(vmName);
+
+        if (zone != null) {
+            return zone;
+        }
+        List<Instance> matches = new PagedIterable<InstanceAggregatedList, Instance>("locating VM " + vmName) {
+            @Override
+            protected InstanceAggregatedList fetch(String pageToken) throws IOException {
+                return gce.instances().aggregatedList(project).setFilter("name eq " + vmName).setFields("items/*/instances(name,zone),nextPageToken").setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull InstanceAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Instance> toItems(@Nonnull InstanceAggregatedList page) {
+                List<Instance> items = new ArrayList<Instance>();
+                if (page.getItems() != null) {
+                    for (InstancesScopedList scopedList : page.getItems().values()) {
+                        if (scopedList.getInstances() != null) {
+                            items.addAll(scopedList.getInstances());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+        for (Instance instance : matches) {
+            if (vmName.equals(instance.getName())) {
+                index.put(vmName, instance.getZone());
+                return index.getZone(vmName);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads an instance with a single instances().get call in its zone. A recorded zone that no longer holds the
+     * instance is dropped from the location index and the instance located again.
+     * @param gce the compute client
+     * @param vmName the name of the instance
+     * @return the instance, or null if it does not exist
+     */
+    private @Nullable Instance getInstance(@Nonnull Compute gce, @Nonnull String vmName) throws CloudException, InternalException {
+        String project = provider.getContext().getAccountNumber();
+        VmLocationIndex index = VmLocationIndex.getInstance(project);
+        boolean recorded = (index.getZone(vmName) != null);
+
+        while (true) {
+            String zone = findZone(gce, vmName);
+            if (zone == null) {
+                return null;
+            }
+            try {
+                return gce.instances().get(project, zone, vmName).setFields(FieldMask.INSTANCE.forGet(provider)).execute();
+            } catch (IOException ex) {
+                if (ex.getClass() == GoogleJsonResponseException.class) {
+                    GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+                    if (gjre.getStatusCode() == 404) {
+                        index.remove(vmName);
+                        if (recorded) {
+                            recorded = false;
+                            continue; // stale entry, look the instance up again
+                        }
+                        return null;
+                    }
+                    logger.error(ex.getMessage());
+                    throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+                } else {
+                    logger.error(ex.getMessage());
+                    throw new CloudException("An error occurred retrieving VM: " + vmName + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
 	@Override
 	public @Nonnull String getConsoleOutput(@Nonnull String vmId) throws InternalException, CloudException {
 		try{
-            for(VirtualMachine vm : listVirtualMachines()){
-                if(vm.getProviderVirtualMachineId().equalsIgnoreCase(vmId)){
-                    Compute gce = provider.getGoogleCompute();
-                    SerialPortOutput output = gce.instances().getSerialPortOutput(provider.getContext().getAccountNumber(), vm.getProviderDataCenterId(), getVmNameFromId(vmId)).execute();
-                    return output.getContents();
-                }
+            Compute gce = provider.getGoogleCompute();
+            String zone = findZone(gce, getVmNameFromId(vmId));
+            if (zone != null) {
+                SerialPortOutput output = gce.instances().getSerialPortOutput(provider.getContext().getAccountNumber(), zone, getVmNameFromId(vmId)).execute();
+                return output.getContents();
             }
 		} catch (IOException ex) {
 			logger.error(ex.getMessage());
@@ -267,29 +386,11 @@ public class ServerSupport extends AbstractVMSupport<Google> {
 	public VirtualMachine getVirtualMachine(@Nonnull String vmId)throws InternalException, CloudException {
         APITrace.begin(getProvider(), "getVirtualMachine");
         try{
-            try{
-                Compute gce = provider.getGoogleCompute();
-                InstanceAggregatedList instances = gce.instances().aggregatedList(provider.getContext().getAccountNumber()).setFilter("name eq " + getVmNameFromId(vmId)).execute();
-                Iterator<String> it = instances.getItems().keySet().iterator();
-                while (it.hasNext()){
-                    String zone = it.next();
-                    if(instances.getItems() != null && instances.getItems().get(zone) != null && instances.getItems().get(zone).getInstances() != null){
-                        for(Instance instance : instances.getItems().get(zone).getInstances()){
-                            if(instance.getName().equals(getVmNameFromId(vmId))) {
-                                return toVirtualMachine(instance);
-                            }
-                        }
-                    }
-                }
+            Instance instance = getInstance(provider.getGoogleCompute(), getVmNameFromId(vmId));
+            if (instance == null) {
                 return null; // not found
-            } catch (IOException ex) {
-				logger.error(ex.getMessage());
-				if (ex.getClass() == GoogleJsonResponseException.class) {
-					GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-					throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-				} else
-					throw new CloudException("An error occurred retrieving VM: " + vmId + ": " + ex.getMessage());
-			}
+            }
+            return toVirtualMachine(instance);
         }
         finally {
             APITrace.end();
@@ -303,7 +404,33 @@ public class ServerSupport extends AbstractVMSupport<Google> {
     }
 
     public void validateLaunchOptions(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
+        validateLaunchTemplate(withLaunchOptions);
+        validateLaunchTarget(withLaunchOptions);
+    }
+
+    /**
+     * Checks the options that are different for each VM: the hostname and the root disk named after it.
+     */
+    private void validateLaunchTarget(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
+        validateHostName(withLaunchOptions);
 
+        String hostName = getCapabilities().getVirtualMachineNamingConstraints().convertToValidName(withLaunchOptions.getHostName(), Locale.US);
+        if (null != provider.getComputeServices().getVolumeSupport().getVolume(hostName)) {
+            throw new InternalException("Root disk " + hostName + " already exists.");
+        }
+    }
+
+    private void validateHostName(@Nonnull VMLaunchOptions withLaunchOptions) throws InternalException {
+        if (withLaunchOptions.getHostName() == null || withLaunchOptions.getHostName().equals("")) {
+            throw new InternalException("A hostname must be specified when launching an instance");
+        }
+    }
+
+    /**
+     * Checks the options every VM of a launch shares, leaving out the hostname and root disk that are different for each VM.
+     * @return the vlan the VMs are launched in
+     */
+    private @Nonnull VLAN validateLaunchTemplate(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
         if (withLaunchOptions.getDataCenterId() == null || withLaunchOptions.getDataCenterId().equals("")) {
             throw new InternalException("A datacenter must be specified when launching an instance");
         }
@@ -312,10 +439,6 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             throw new InternalException("A MachineImage must be specified when launching an instance");
         }
 
-        if (withLaunchOptions.getHostName() == null || withLaunchOptions.getHostName().equals("")) {
-            throw new InternalException("A hostname must be specified when launching an instance");
-        }
-
         if (withLaunchOptions.getVlanId() == null || withLaunchOptions.getVlanId().equals("")) {
             throw new InternalException("A vlan must be specified when launching an instance");
         } else {
@@ -323,21 +446,32 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             if ((null == vlan) || (null == vlan.getTag("contentLink"))) {
                 throw new InternalException("Problem getting Vlan for " + withLaunchOptions.getVlanId());
             }
-        }
-
-        String hostName = getCapabilities().getVirtualMachineNamingConstraints().convertToValidName(withLaunchOptions.getHostName(), Locale.US);
-        if (null != provider.getComputeServices().getVolumeSupport().getVolume(hostName)) {
-            throw new InternalException("Root disk " + hostName + " already exists.");
+            return vlan;
         }
     }
 
     @Override
     public @Nonnull VirtualMachine launch(@Nonnull VMLaunchOptions withLaunchOptions) throws CloudException, InternalException {
-        APITrace.begin(getProvider(), "launchVM"); //  windows-cloud_windows-server-2012-r2-dc-v20150629
+        return launch(withLaunchOptions, true);
+    }
 
-        validateLaunchOptions(withLaunchOptions); // this will exception out on problem.
-        boolean windows = false;
+    /**
+     * @param validate false when the caller has already validated the options, as launchMany does once for the whole batch
+     */
+    private @Nonnull VirtualMachine launch(@Nonnull VMLaunchOptions withLaunchOptions, boolean validate) throws CloudException, InternalException {
+        APITrace.begin(getProvider(), "launchVM"); //  windows-cloud_windows-server-2012-r2-dc-v20150629
         try{
+            String planKey = LaunchPlan.getKey(provider.getContext().getAccountNumber(), withLaunchOptions);
+            LaunchPlan plan = LaunchPlan.get(planKey);
+
+            if (validate) {
+                validateLaunchTarget(withLaunchOptions); // this will exception out on problem.
+            }
+            // with a plan at hand the template was validated and resolved by an earlier launch
+            if (plan == null) {
+                plan = resolveLaunchPlan(withLaunchOptions, validate ? validateLaunchTemplate(withLaunchOptions) : null);
+            }
+            boolean windows = plan.isWindows();
             Compute gce = provider.getGoogleCompute();
             GoogleMethod method = new GoogleMethod(provider);
 
@@ -345,12 +479,7 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             Instance instance = new Instance();
             instance.setName(hostName);
             instance.setDescription(withLaunchOptions.getDescription());
-            if (withLaunchOptions.getStandardProductId().contains("+")) {
-                instance.setMachineType(getProduct(withLaunchOptions.getStandardProductId()).getDescription());
-            } else {
-                instance.setMachineType(getProduct(withLaunchOptions.getStandardProductId() + "+" + withLaunchOptions.getDataCenterId()).getDescription());
-            }
-            MachineImage image = provider.getComputeServices().getImageSupport().getImage(withLaunchOptions.getMachineImageId());
+            instance.setMachineType(plan.getMachineType());
 
             AttachedDisk rootVolume = new AttachedDisk();
             rootVolume.setBoot(Boolean.TRUE);
@@ -359,28 +488,8 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             AttachedDiskInitializeParams params = new AttachedDiskInitializeParams();
             // do not use withLaunchOptions.getFriendlyName() it is non compliant!!!
             params.setDiskName(hostName);
-            // Not Optimum solution, update in core should come next release to have this be part of MachineImage
-
-            try {
-                String[] parts = withLaunchOptions.getMachineImageId().split("_");
-                Image img = gce.images().get(parts[0], parts[1]).execute();
-
-                windows = guessWindows(img);
-
-                Long size = img.getDiskSizeGb();
-                String diskSizeGb = size.toString();
-                if (null == diskSizeGb) {
-                    diskSizeGb = img.getUnknownKeys().get("diskSizeGb").toString();
-                }
-                Long MinimumDiskSizeGb = Long.valueOf(diskSizeGb).longValue();
-                params.setDiskSizeGb(MinimumDiskSizeGb); 
-            } catch ( Exception e ) {
-                params.setDiskSizeGb(10L);
-            }
-            if ((image != null) && (image.getTag("contentLink") != null))
-                params.setSourceImage((String)image.getTag("contentLink"));
-            else
-                throw new CloudException("Problem getting the contentLink tag value from the image for " + withLaunchOptions.getMachineImageId());
+            params.setDiskSizeGb(plan.getDiskSizeGb());
+            params.setSourceImage(plan.getSourceImage());
             rootVolume.setInitializeParams(params);
 
             List<AttachedDisk> attachedDisks = new ArrayList<AttachedDisk>();
@@ -421,12 +530,7 @@ public class ServerSupport extends AbstractVMSupport<Google> {
 
             NetworkInterface nic = new NetworkInterface();
             nic.setName("nic0");
-            if (null != withLaunchOptions.getVlanId()) {
-                VLAN vlan = provider.getNetworkServices().getVlanSupport().getVlan(withLaunchOptions.getVlanId());
-                nic.setNetwork(vlan.getTag("contentLink"));
-            } else {
-                nic.setNetwork(provider.getNetworkServices().getVlanSupport().getVlan("default").getTag("contentLink"));
-            }
+            nic.setNetwork(plan.getNetwork());
             nic.setAccessConfigs(accessConfigs);
             List<NetworkInterface> nics = new ArrayList<NetworkInterface>();
             nics.add(nic);
@@ -481,13 +585,25 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             try {
                 Operation job = gce.instances().insert(provider.getContext().getAccountNumber(), withLaunchOptions.getDataCenterId(), instance).execute();
                 vmId = method.getOperationTarget(provider.getContext(), job, GoogleOperationType.ZONE_OPERATION, "", withLaunchOptions.getDataCenterId(), false);
+                if (!vmId.equals("")) {
+                    VmLocationIndex.getInstance(provider.getContext().getAccountNumber()).put(vmId, withLaunchOptions.getDataCenterId());
+                }
             } catch (IOException ex) {
 				if (ex.getClass() == GoogleJsonResponseException.class) {
 					GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+					int status = gjre.getStatusCode();
+					// the image, network or machine type may have gone away since the plan was made
+					if ((status == 404 || status == 400) && gjre.getDetails() != null && plan.isReferencedBy(gjre.getDetails().getMessage())) {
+					    LaunchPlan.remove(planKey);
+					}
 					throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
 				} else
 					throw new CloudException("An error occurred launching the instance: " + ex.getMessage());
 			} catch (Exception e) {
+			    // a failed insert operation reports a missing resource as "The resource '...' was not found"
+			    if ((e.getMessage() != null) && e.getMessage().contains("not found") && plan.isReferencedBy(e.getMessage())) {
+			        LaunchPlan.remove(planKey);
+			    }
 			    if ((e.getMessage().contains("The resource")) && 
                         (e.getMessage().contains("disks")) &&
                         (e.getMessage().contains("already exists"))) {
@@ -550,6 +666,63 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         }
     }
 
+    /**
+     * Looks up the machine type, image and network a launch template refers to and keeps the result for later
+     * launches of the same template.
+     * @param vlan the vlan already fetched while validating the template, or null to look it up
+     */
+    private @Nonnull LaunchPlan resolveLaunchPlan(@Nonnull VMLaunchOptions withLaunchOptions, @Nullable VLAN vlan) throws CloudException, InternalException {
+        Compute gce = provider.getGoogleCompute();
+        VirtualMachineProduct product;
+
+        if (withLaunchOptions.getStandardProductId().contains("+")) {
+            product = getProduct(withLaunchOptions.getStandardProductId());
+        } else {
+            product = getProduct(withLaunchOptions.getStandardProductId() + "+" + withLaunchOptions.getDataCenterId());
+        }
+        if (product == null) {
+            throw new CloudException("No machine type " + withLaunchOptions.getStandardProductId() + " found in " + withLaunchOptions.getDataCenterId());
+        }
+        MachineImage image = provider.getComputeServices().getImageSupport().getImage(withLaunchOptions.getMachineImageId());
+
+        if ((image == null) || (image.getTag("contentLink") == null)) {
+            throw new CloudException("Problem getting the contentLink tag value from the image for " + withLaunchOptions.getMachineImageId());
+        }
+        boolean windows = false;
+        long diskSizeGb;
+
+        // Not Optimum solution, update in core should come next release to have this be part of MachineImage
+        try {
+            String[] parts = withLaunchOptions.getMachineImageId().split("_");
+            Image img = gce.images().get(parts[0], parts[1]).execute();
+
+            windows = guessWindows(img);
+
+            Long size = img.getDiskSizeGb();
+            String sizeGb = size.toString();
+            if (null == sizeGb) {
+                sizeGb = img.getUnknownKeys().get("diskSizeGb").toString();
+            }
+            diskSizeGb = Long.valueOf(sizeGb).longValue();
+        } catch ( Exception e ) {
+            diskSizeGb = 10L;
+        }
+        if (null == vlan) {
+            if (null != withLaunchOptions.getVlanId()) {
+                vlan = provider.getNetworkServices().getVlanSupport().getVlan(withLaunchOptions.getVlanId());
+            } else {
+                vlan = provider.getNetworkServices().getVlanSupport().getVlan("default");
+            }
+        }
+        if ((null == vlan) || (null == vlan.getTag("contentLink"))) {
+            throw new InternalException("Problem getting Vlan for " + withLaunchOptions.getVlanId());
+        }
+        LaunchPlan plan = new LaunchPlan(product.getDescription(), (String)image.getTag("contentLink"), diskSizeGb, windows, vlan.getTag("contentLink"));
+
+        LaunchPlan.put(LaunchPlan.getKey(provider.getContext().getAccountNumber(), withLaunchOptions), plan);
+        return plan;
+    }
+
     private boolean guessWindows(Image img) {
         for (String license : img.getLicenses()) {
             if (license.contains("windows")) {
@@ -649,57 +822,195 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             return new ArrayList<VirtualMachineProduct>(); // empty!
     }
 
+	/**
+	 * Streams the matching VMs of the current region page by page. Iterating past the first page throws a
+	 * {@link PagedListingException} if a later page cannot be read.
+	 */
 	@Override
-	public @Nonnull Iterable<VirtualMachine> listVirtualMachines(VMFilterOptions options)throws InternalException, CloudException {
+	public @Nonnull Iterable<VirtualMachine> listVirtualMachines(final VMFilterOptions options)throws InternalException, CloudException {
         APITrace.begin(getProvider(), "listVirtualMachines");
         try{
-            try{
-                ArrayList<VirtualMachine> vms = new ArrayList<VirtualMachine>();
-                Compute gce = provider.getGoogleCompute();
-                InstanceAggregatedList instances = gce.instances().aggregatedList(provider.getContext().getAccountNumber()).execute();
-                Iterator<String> it = instances.getItems().keySet().iterator();
-                while(it.hasNext()){
-                    String zone = it.next();
-                    if(getContext().getRegionId().equals(provider.getDataCenterServices().getRegionFromZone(zone))){
-                        if(instances.getItems() != null && instances.getItems().get(zone) != null && instances.getItems().get(zone).getInstances() != null){
-                            for(Instance instance : instances.getItems().get(zone).getInstances()){
-                                VirtualMachine vm = toVirtualMachine(instance);
-                                if (options == null || options.matches(vm)) {
+            final Compute gce = provider.getGoogleCompute();
+            final String regionId = getContext().getRegionId();
+            // boot disks and static IPs are joined in memory rather than fetched once per VM, with one listing of
+            // each shared by every page
+            final ListingJoin<Map<String, Disk>> disksBySelfLink = new ListingJoin<Map<String, Disk>>() {
+                @Override
+                protected @Nonnull Map<String, Disk> load() throws CloudException, InternalException {
+                    return listDisksBySelfLink(gce);
+                }
+            };
+            final ListingJoin<Map<String, Address>> addressesByIp = new ListingJoin<Map<String, Address>>() {
+                @Override
+                protected @Nonnull Map<String, Address> load() throws CloudException, InternalException {
+                    return listAddressesByIp(gce);
+                }
+            };
+
+            return new PagedIterable<InstanceAggregatedList, VirtualMachine>("listing Virtual Machines") {
+                @Override
+                protected InstanceAggregatedList fetch(String pageToken) throws IOException {
+                    return gce.instances().aggregatedList(provider.getContext().getAccountNumber()).setFields(FieldMask.INSTANCE.forAggregatedList(provider, "instances")).setPageToken(pageToken).execute();
+                }
+
+                @Override
+                protected String getNextPageToken(@Nonnull InstanceAggregatedList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<VirtualMachine> toItems(@Nonnull InstanceAggregatedList page) throws CloudException, InternalException {
+                    ArrayList<VirtualMachine> vms = new ArrayList<VirtualMachine>();
+                    if (page.getItems() == null) {
+                        return vms;
+                    }
+                    VmLocationIndex index = VmLocationIndex.getInstance(provider.getContext().getAccountNumber());
+                    for (Map.Entry<String, InstancesScopedList> entry : page.getItems().entrySet()) {
+                        if (entry.getValue() != null && entry.getValue().getInstances() != null) {
+                            for (Instance instance : entry.getValue().getInstances()) {
+                                index.put(instance.getName(), entry.getKey());
+                            }
+                        }
+                        if (entry.getValue() != null && entry.getValue().getInstances() != null &&
+                                regionId.equals(provider.getDataCenterServices().getRegionFromZone(entry.getKey()))) {
+                            for (Instance instance : entry.getValue().getInstances()) {
+                                VirtualMachine vm = toVirtualMachine(instance, disksBySelfLink.get(), addressesByIp.get());
+                                if (vm != null && (options == null || options.matches(vm))) {
                                     vms.add(vm);
                                 }
                             }
                         }
                     }
+                    return vms;
                 }
-                return vms;
-	        } catch (IOException ex) {
-				logger.error(ex.getMessage());
-				if (ex.getClass() == GoogleJsonResponseException.class) {
-					GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-					throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-				} else
-					throw new CloudException("An error occurred while listing Virtual Machines.");
-			}
+            }.start();
         }
         finally{
             APITrace.end();
         }
 	}
 
+    private @Nonnull Map<String, Disk> listDisksBySelfLink(@Nonnull final Compute gce) throws CloudException, InternalException {
+        Map<String, Disk> disks = new HashMap<String, Disk>();
+        List<Disk> diskList = new PagedIterable<DiskAggregatedList, Disk>("listing Volumes") {
+            @Override
+            protected DiskAggregatedList fetch(String pageToken) throws IOException {
+                return gce.disks().aggregatedList(provider.getContext().getAccountNumber()).setFields(FieldMask.DISK_IMAGE.forAggregatedList(provider, "disks")).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull DiskAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Disk> toItems(@Nonnull DiskAggregatedList page) {
+                List<Disk> items = new ArrayList<Disk>();
+                if (page.getItems() != null) {
+                    for (DisksScopedList scopedList : page.getItems().values()) {
+                        if (scopedList.getDisks() != null) {
+                            items.addAll(scopedList.getDisks());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+        for (Disk disk : diskList) {
+            disks.put(disk.getSelfLink(), disk);
+        }
+        return disks;
+    }
+
+    private @Nonnull Map<String, Address> listAddressesByIp(@Nonnull final Compute gce) throws CloudException, InternalException {
+        Map<String, Address> addresses = new HashMap<String, Address>();
+        List<Address> addressList = new PagedIterable<AddressAggregatedList, Address>("listing IP addresses") {
+            @Override
+            protected AddressAggregatedList fetch(String pageToken) throws IOException {
+                return gce.addresses().aggregatedList(provider.getContext().getAccountNumber()).setFields(FieldMask.ADDRESS.forAggregatedList(provider, "addresses")).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull AddressAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Address> toItems(@Nonnull AddressAggregatedList page) {
+                List<Address> items = new ArrayList<Address>();
+                if (page.getItems() != null) {
+                    for (AddressesScopedList scopedList : page.getItems().values()) {
+                        if (scopedList.getAddresses() != null) {
+                            items.addAll(scopedList.getAddresses());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+        for (Address address : addressList) {
+            if (address.getAddress() != null) {
+                addresses.put(address.getAddress(), address);
+            }
+        }
+        return addresses;
+    }
+
     @Override
     public @Nonnull Iterable<VirtualMachine> listVirtualMachines()throws InternalException, CloudException {
         VMFilterOptions options = VMFilterOptions.getInstance();
         return listVirtualMachines(options);
     }
 
+    /**
+     * Lists the state of every VM in the current region with a partial response holding only the fields a status
+     * needs, and without the disk and address lookups of {@link #listVirtualMachines(VMFilterOptions)}.
+     * Iterating past the first page throws a {@link PagedListingException} if a later page cannot be read.
+     */
     @Override
     public @Nonnull Iterable<ResourceStatus> listVirtualMachineStatus() throws InternalException, CloudException {
-        ArrayList<ResourceStatus> vmStatuses = new ArrayList<ResourceStatus>();
-        for(VirtualMachine vm : listVirtualMachines()){
-            ResourceStatus status = new ResourceStatus(vm.getProviderVirtualMachineId(), vm.getCurrentState());
-            vmStatuses.add(status);
+        APITrace.begin(getProvider(), "listVirtualMachineStatus");
+        try{
+            final Compute gce = provider.getGoogleCompute();
+            final String regionId = getContext().getRegionId();
+
+            return new PagedIterable<InstanceAggregatedList, ResourceStatus>("listing Virtual Machine status") {
+                @Override
+                protected InstanceAggregatedList fetch(String pageToken) throws IOException {
+                    return gce.instances().aggregatedList(provider.getContext().getAccountNumber()).setFields("items/*/instances(name,id,status,statusMessage,zone),nextPageToken").setPageToken(pageToken).execute();
+                }
+
+                @Override
+                protected String getNextPageToken(@Nonnull InstanceAggregatedList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<ResourceStatus> toItems(@Nonnull InstanceAggregatedList page) throws CloudException, InternalException {
+                    ArrayList<ResourceStatus> vmStatuses = new ArrayList<ResourceStatus>();
+                    if (page.getItems() == null) {
+                        return vmStatuses;
+                    }
+                    VmLocationIndex index = VmLocationIndex.getInstance(provider.getContext().getAccountNumber());
+                    for (Map.Entry<String, InstancesScopedList> entry : page.getItems().entrySet()) {
+                        if (entry.getValue() == null || entry.getValue().getInstances() == null) {
+                            continue;
+                        }
+                        boolean inRegion = regionId.equals(provider.getDataCenterServices().getRegionFromZone(entry.getKey()));
+                        for (Instance instance : entry.getValue().getInstances()) {
+                            index.put(instance.getName(), entry.getKey());
+                            if (inRegion) {
+                                vmStatuses.add(new ResourceStatus(instance.getName() + "_" + instance.getId().toString(), toVmState(instance)));
+                            }
+                        }
+                    }
+                    return vmStatuses;
+                }
+            }.start();
+        }
+        finally{
+            APITrace.end();
         }
-        return vmStatuses;
     }
 
 	@Override
@@ -713,14 +1024,10 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         try{
             try{
                 Operation job = null;
-                String zone = null;
-                for (VirtualMachine vm : listVirtualMachines()) {
-                    if (vm.getProviderVirtualMachineId().equalsIgnoreCase(vmId)) {
-                        zone = vm.getProviderDataCenterId();
-                        Compute gce = provider.getGoogleCompute();
-                        job = gce.instances().reset(provider.getContext().getAccountNumber(), vm.getProviderDataCenterId(), getVmNameFromId(vmId)).execute();
-                        break;
-                    }
+                Compute gce = provider.getGoogleCompute();
+                String zone = findZone(gce, getVmNameFromId(vmId));
+                if (zone != null) {
+                    job = gce.instances().reset(provider.getContext().getAccountNumber(), zone, getVmNameFromId(vmId)).execute();
                 }
                 if(job != null){
                     GoogleMethod method = new GoogleMethod(provider);
@@ -754,8 +1061,11 @@ public class ServerSupport extends AbstractVMSupport<Google> {
     public void start(@Nonnull String vmId) throws InternalException, CloudException {
         Compute gce = provider.getGoogleCompute();
         try {
-            VirtualMachine vm = getVirtualMachine(vmId);
-            gce.instances().start(provider.getContext().getAccountNumber(), vm.getProviderDataCenterId(), getVmNameFromId(vmId)).execute();
+            String zone = findZone(gce, getVmNameFromId(vmId));
+            if (zone == null) {
+                throw new CloudException("Virtual Machine " + vmId + " was not found.");
+            }
+            gce.instances().start(provider.getContext().getAccountNumber(), zone, getVmNameFromId(vmId)).execute();
         } catch (IOException ex) {
             logger.error(ex.getMessage());
             if (ex.getClass() == GoogleJsonResponseException.class) {
@@ -770,8 +1080,11 @@ public class ServerSupport extends AbstractVMSupport<Google> {
     public void stop(@Nonnull String vmId, boolean force) throws InternalException, CloudException {
         Compute gce = provider.getGoogleCompute();
         try {
-            VirtualMachine vm = getVirtualMachine(vmId);
-            gce.instances().stop(provider.getContext().getAccountNumber(), vm.getProviderDataCenterId(), getVmNameFromId(vmId)).execute();
+            String zone = findZone(gce, getVmNameFromId(vmId));
+            if (zone == null) {
+                throw new CloudException("Virtual Machine " + vmId + " was not found.");
+            }
+            gce.instances().stop(provider.getContext().getAccountNumber(), zone, getVmNameFromId(vmId)).execute();
         } catch (IOException ex) {
             logger.error(ex.getMessage());
             if (ex.getClass() == GoogleJsonResponseException.class) {
@@ -784,16 +1097,16 @@ public class ServerSupport extends AbstractVMSupport<Google> {
 
     @Override
     public void terminate(@Nonnull String vmId) throws InternalException, CloudException {
-        VirtualMachine vm = getVirtualMachine(vmId);
+        String zone = findZone(provider.getGoogleCompute(), getVmNameFromId(vmId));
         terminateVm(vmId);
-        terminateVmDisk(getVmNameFromId(vmId), vm.getProviderDataCenterId());
+        terminateVmDisk(getVmNameFromId(vmId), zone);
     }
 
     @Override
     public void terminate(@Nonnull String vmId, String reason) throws InternalException, CloudException{
-        VirtualMachine vm = getVirtualMachine(vmId);
+        String zone = findZone(provider.getGoogleCompute(), getVmNameFromId(vmId));
         terminateVm(vmId, null);
-        terminateVmDisk(vmId, vm.getProviderDataCenterId());
+        terminateVmDisk(vmId, zone);
     }
 
     public void terminateVm(@Nonnull String vmId) throws InternalException, CloudException {
@@ -807,14 +1120,13 @@ public class ServerSupport extends AbstractVMSupport<Google> {
             GoogleMethod method = null;
             String zone = null;
             Compute gce = provider.getGoogleCompute();
-            VirtualMachine vm = getVirtualMachine(vmId);
+            zone = findZone(gce, getVmNameFromId(vmId));
 
-            if (null == vm) {
+            if (null == zone) {
                 throw new CloudException("Virtual Machine " + vmId + " was not found.");
             }
 
             try {
-                zone = vm.getProviderDataCenterId();
                 job = gce.instances().delete(provider.getContext().getAccountNumber(), zone, getVmNameFromId(vmId)).execute();
                 if(job != null) {
                     method = new GoogleMethod(provider);
@@ -822,6 +1134,7 @@ public class ServerSupport extends AbstractVMSupport<Google> {
                         throw new CloudException("An error occurred while terminating the VM. Note: The root disk might also still exist");
                     }
                 }
+                VmLocationIndex.getInstance(provider.getContext().getAccountNumber()).remove(getVmNameFromId(vmId));
             } catch (IOException ex) {
                 logger.error(ex.getMessage());
                 if (ex.getClass() == GoogleJsonResponseException.class) {
@@ -892,17 +1205,11 @@ public class ServerSupport extends AbstractVMSupport<Google> {
 		throw new OperationNotSupportedException("Google does not support removing meta data from vms");
 	}
 
-    private VirtualMachine toVirtualMachine(Instance instance) throws InternalException, CloudException{
-        VirtualMachine vm = new VirtualMachine();
-        vm.setProviderVirtualMachineId(instance.getName() + "_" + instance.getId().toString());
-        vm.setName(instance.getName());
-        if (instance.getDescription() != null) {
-            vm.setDescription(instance.getDescription());
-        } else {
-            vm.setDescription(instance.getName());
-        }
-        vm.setProviderOwnerId(provider.getContext().getAccountNumber());
-
+    /**
+     * @param instance a GCE instance, of which only the status and status message are read
+     * @return the dasein state matching the instance status
+     */
+    private @Nonnull VmState toVmState(@Nonnull Instance instance) {
         VmState vmState = null;
         if (instance.getStatus().equalsIgnoreCase("provisioning") || 
             instance.getStatus().equalsIgnoreCase("staging")) {
@@ -918,7 +1225,34 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         } else {
             vmState = VmState.RUNNING;
         }
-        vm.setCurrentState(vmState);
+        return vmState;
+    }
+
+    private VirtualMachine toVirtualMachine(Instance instance) throws InternalException, CloudException{
+        return toVirtualMachine(instance, null, null);
+    }
+
+    /**
+     * Converts a GCE instance into a dasein virtual machine. When the disk and address indexes are supplied
+     * (as they are by {@link #listVirtualMachines(VMFilterOptions)}) the boot disk and static IP are resolved
+     * from them, otherwise each is looked up with its own API call.
+     * @param instance the GCE instance
+     * @param disksBySelfLink disks keyed by self link, or null to fetch the boot disk directly
+     * @param addressesByIp reserved addresses keyed by IP, or null to search the region's addresses
+     * @return the matching virtual machine
+     */
+    private VirtualMachine toVirtualMachine(Instance instance, @Nullable Map<String, Disk> disksBySelfLink, @Nullable Map<String, Address> addressesByIp) throws InternalException, CloudException{
+        VirtualMachine vm = new VirtualMachine();
+        vm.setProviderVirtualMachineId(instance.getName() + "_" + instance.getId().toString());
+        vm.setName(instance.getName());
+        if (instance.getDescription() != null) {
+            vm.setDescription(instance.getDescription());
+        } else {
+            vm.setDescription(instance.getName());
+        }
+        vm.setProviderOwnerId(provider.getContext().getAccountNumber());
+
+        vm.setCurrentState(toVmState(instance));
         String regionId = "";
         try {
             regionId = provider.getDataCenterServices().getRegionFromZone(instance.getZone().substring(instance.getZone().lastIndexOf("/") + 1));
@@ -942,7 +1276,12 @@ public class ServerSupport extends AbstractVMSupport<Google> {
                     String diskName = disk.getSource().substring(disk.getSource().lastIndexOf("/") + 1);
                     Compute gce = provider.getGoogleCompute();
                     try {
-                        Disk sourceDisk = gce.disks().get(provider.getContext().getAccountNumber(), zone, diskName).execute();
+                        Disk sourceDisk;
+                        if (disksBySelfLink != null) {
+                            sourceDisk = disksBySelfLink.get(disk.getSource());
+                        } else {
+                            sourceDisk = gce.disks().get(provider.getContext().getAccountNumber(), zone, diskName).setFields(FieldMask.DISK_IMAGE.forGet(provider)).execute();
+                        }
                         if (sourceDisk != null && sourceDisk.getSourceImage() != null) {
                             String project = "";
                             Pattern p = Pattern.compile("/projects/(.*?)/");
@@ -986,11 +1325,18 @@ public class ServerSupport extends AbstractVMSupport<Google> {
                     if (accessConfig.getNatIP() != null) {
                         publicAddresses.add(new RawAddress(accessConfig.getNatIP()));
                         if (!isSet) {
-                            try {
-                                isSet = true;
-                                providerAssignedIpAddressId = provider.getNetworkServices().getIpAddressSupport().getIpAddressIdFromIP(accessConfig.getNatIP(), regionId);
-                            } catch(InternalException ex) {
-                                /*Likely to be an ephemeral IP*/
+                            isSet = true;
+                            if (addressesByIp != null) {
+                                Address address = addressesByIp.get(accessConfig.getNatIP());
+                                if (address != null) {
+                                    providerAssignedIpAddressId = address.getName();
+                                }
+                            } else {
+                                try {
+                                    providerAssignedIpAddressId = provider.getNetworkServices().getIpAddressSupport().getIpAddressIdFromIP(accessConfig.getNatIP(), regionId);
+                                } catch(InternalException ex) {
+                                    /*Likely to be an ephemeral IP*/
+                                }
                             }
                         }
                     }
@@ -1040,7 +1386,8 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         return product;
     }
 
-    // the default implementation does parallel launches and throws an exception only if it is unable to launch any virtual machines
+    // launches at most getLaunchParallelism() virtual machines at once, handing back each id as its launch completes,
+    // and throws an exception only if it is unable to launch any virtual machines
     @Override
     public @Nonnull Iterable<String> launchMany(final @Nonnull VMLaunchOptions withLaunchOptions, final @Nonnegative int count) throws CloudException, InternalException {
         if( count < 1 ) {
@@ -1049,7 +1396,11 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         if( count == 1 ) {
             return Collections.singleton(launch(withLaunchOptions).getProviderVirtualMachineId());
         }
-        final List<Future<String>> results = new ArrayList<Future<String>>();
+        // the vlan, image, machine type and data center are the same for every VM, so they are checked and resolved once for the whole batch
+        if (LaunchPlan.get(LaunchPlan.getKey(provider.getContext().getAccountNumber(), withLaunchOptions)) == null) {
+            resolveLaunchPlan(withLaunchOptions, validateLaunchTemplate(withLaunchOptions));
+        }
+        validateHostName(withLaunchOptions);
 
         // windows on GCE follows same naming constraints as regular instances, 1-62 lower and numbers, must begin with a letter.
         NamingConstraints c = NamingConstraints.getAlphaNumeric(1, 63).withNoSpaces().withRegularExpression("(?:[a-z](?:[-a-z0-9]{0,61}[a-z0-9])?)").lowerCaseOnly().constrainedBy('-');
@@ -1058,39 +1409,75 @@ public class ServerSupport extends AbstractVMSupport<Google> {
         if( baseHost == null ) {
             baseHost = withLaunchOptions.getHostName();
         }
+        // a single disk listing stands in for a root disk lookup per VM
+        Set<String> existingDisks = new HashSet<String>();
+
+        for( String selfLink : listDisksBySelfLink(provider.getGoogleCompute()).keySet() ) {
+            existingDisks.add(selfLink.substring(selfLink.lastIndexOf("/") + 1));
+        }
+        final List<VMLaunchOptions> batch = new ArrayList<VMLaunchOptions>();
+        String conflict = null;
+
         for (int i = 1; i <= count; i++) {
             String hostName = c.incrementName(baseHost, i);
             String friendlyName = withLaunchOptions.getFriendlyName() + "-" + i;
             VMLaunchOptions options = withLaunchOptions.copy(hostName == null ? withLaunchOptions.getHostName() + "-" + i : hostName, friendlyName);
+            String rootDisk = getCapabilities().getVirtualMachineNamingConstraints().convertToValidName(options.getHostName(), Locale.US);
 
-            results.add(launchAsync(options));
+            if( existingDisks.contains(rootDisk) ) {
+                logger.warn("Not launching " + options.getHostName() + ": root disk " + rootDisk + " already exists");
+                conflict = rootDisk;
+            }
+            else {
+                batch.add(options);
+            }
+        }
+        if( batch.isEmpty() ) {
+            throw new InternalException("Root disk " + conflict + " already exists.");
         }
+        final int parallelism = provider.getLaunchParallelism();
 
         PopulatorThread<String> populator = new PopulatorThread<String>(new JiteratorPopulator<String>() {
             @Override
             public void populate( @Nonnull Jiterator<String> iterator ) throws Exception {
-                List<Future<String>> original = results;
-                List<Future<String>> copy = new ArrayList<Future<String>>();
+                CompletionService<String> completion = new ExecutorCompletionService<String>(launchers);
+                List<Future<String>> running = new ArrayList<Future<String>>();
+                Iterator<VMLaunchOptions> pending = batch.iterator();
                 Exception exception = null;
                 boolean loaded = false;
 
-                while( !original.isEmpty() ) {
-                    for( Future<String> result : original ) {
-                        if( result.isDone() ) {
-                            try {
-                                iterator.push(result.get());
-                                loaded = true;
-                            } catch( Exception e ) {
-                                exception = e;
-                            }
+                try {
+                    while( pending.hasNext() || !running.isEmpty() ) {
+                        while( running.size() < parallelism && pending.hasNext() ) {
+                            final VMLaunchOptions options = pending.next();
+
+                            running.add(completion.submit(new Callable<String>() {
+                                @Override
+                                public String call() throws CloudException, InternalException {
+                                    return launch(options, false).getProviderVirtualMachineId();
+                                }
+                            }));
                         }
-                        else {
-                            copy.add(result);
+                        // blocks until the next launch finishes, whichever it is
+                        Future<String> done = completion.take();
+
+                        running.remove(done);
+                        try {
+                            iterator.push(done.get());
+                            loaded = true;
+                        }
+                        catch( ExecutionException e ) {
+                            logger.warn("Launch failed: " + e.getCause().getMessage());
+                            exception = (e.getCause() instanceof Exception ? (Exception)e.getCause() : e);
                         }
                     }
-                    original = copy;
-                    // copy has to be a new list else we'll get into concurrently modified list state
-                    copy = new ArrayList<Future<String>>();
+                }
+                catch( InterruptedException e ) {
+                    for( Future<String> future : running ) {
+                        future.cancel(true);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new InternalException("Interrupted while launching virtual machines");
                 }
                 if( exception != null && !loaded ) {
                     throw exception;
@@ -1106,40 +1493,15 @@ public class ServerSupport extends AbstractVMSupport<Google> {
     public @Nullable String getUserData( @Nonnull String vmId ) throws InternalException, CloudException {
         APITrace.begin(getProvider(), "getVirtualMachine");
         try{
-            try{
-                Compute gce = provider.getGoogleCompute();
-                InstanceAggregatedList instances = gce.instances().aggregatedList(provider.getContext().getAccountNumber()).setFilter("name eq " + getVmNameFromId(vmId)).execute();
-                Iterator<String> it = instances.getItems().keySet().iterator();
-                while (it.hasNext()){
-                    String zone = it.next();
-                    if(instances.getItems() != null && instances.getItems().get(zone) != null && instances.getItems().get(zone).getInstances() != null){
-                        for(Instance instance : instances.getItems().get(zone).getInstances()){
-                            if(instance.getName().equals(getVmNameFromId(vmId))) {
-                                Metadata metadata = instance.getMetadata();
-                                if (null != metadata) {
-                                List<Items> items = metadata.getItems();
-                                if (null != items) {
-                                    for (Items item : items) {
-                                        if ("startup-script".equals(item.getKey())) {
-                                            return item.getValue();
-                                        }
-                                    }
-                                }
-                                }
-                            }
-
-                        }
+            Instance instance = getInstance(provider.getGoogleCompute(), getVmNameFromId(vmId));
+            if (instance != null && instance.getMetadata() != null && instance.getMetadata().getItems() != null) {
+                for (Items item : instance.getMetadata().getItems()) {
+                    if ("startup-script".equals(item.getKey())) {
+                        return item.getValue();
                     }
                 }
-                return null; // not found
-            } catch (IOException ex) {
-                logger.error(ex.getMessage());
-                if (ex.getClass() == GoogleJsonResponseException.class) {
-                    GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-                    throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-                } else
-                    throw new CloudException("An error occurred retrieving VM: " + vmId + ": " + ex.getMessage());
             }
+            return null; // not found
         }
         finally {
             APITrace.end();
@@ -26,9 +26,12 @@ import org.apache.log4j.Logger;
 import org.dasein.cloud.*;
 import org.dasein.cloud.compute.*;
 import org.dasein.cloud.compute.Snapshot;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.PagedListingException;
 import org.dasein.cloud.google.capabilities.GCESnapshotCapabilities;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.util.APITrace;
@@ -85,7 +88,7 @@ public class SnapshotSupport extends AbstractSnapshotSupport{
                 Operation job = gce.disks().createSnapshot(provider.getContext().getAccountNumber(), volume.getProviderDataCenterId(), options.getVolumeId(), snapshot).execute();
                 GoogleMethod method = new GoogleMethod(provider);
                 if(method.getOperationComplete(provider.getContext(), job, GoogleOperationType.ZONE_OPERATION, "", volume.getProviderDataCenterId())){
-                    SnapshotList snapshots = gce.snapshots().list(provider.getContext().getAccountNumber()).setFilter("name eq " + options.getName()).execute();
+                    SnapshotList snapshots = gce.snapshots().list(provider.getContext().getAccountNumber()).setFilter("name eq " + options.getName()).setFields("items/name").execute();
                     for(com.google.api.services.compute.model.Snapshot s : snapshots.getItems()){
                         if(s.getName().equals(options.getName()))return s.getName();
                     }
@@ -127,7 +130,7 @@ public class SnapshotSupport extends AbstractSnapshotSupport{
         try{
             Compute gce = provider.getGoogleCompute();
             try{
-                com.google.api.services.compute.model.Snapshot snapshot = gce.snapshots().get(provider.getContext().getAccountNumber(), snapshotId).execute();
+                com.google.api.services.compute.model.Snapshot snapshot = gce.snapshots().get(provider.getContext().getAccountNumber(), snapshotId).setFields(FieldMask.SNAPSHOT.forGet(provider)).execute();
                 return toSnapshot(snapshot);
     	    } catch (IOException ex) {
     	        if ((ex.getMessage() != null) && (ex.getMessage().contains("404 Not Found"))) // not found.
@@ -160,58 +163,76 @@ public class SnapshotSupport extends AbstractSnapshotSupport{
         return Collections.emptyList();
     }
 
+    /**
+     * Streams the snapshot states page by page. Iterating past the first page throws a
+     * {@link PagedListingException} if a later page cannot be read.
+     */
     @Override
     public @Nonnull Iterable<ResourceStatus> listSnapshotStatus() throws InternalException, CloudException{
         APITrace.begin(provider, "Snapshot.listSnapshotStatus");
         try{
-            ArrayList<ResourceStatus> statuses = new ArrayList<ResourceStatus>();
-            Compute gce = provider.getGoogleCompute();
-            try{
-                SnapshotList list = gce.snapshots().list(provider.getContext().getAccountNumber()).execute();
-                if(list != null && list.size() > 0){
-                    for(com.google.api.services.compute.model.Snapshot googleSnapshot : list.getItems()){
-                        ResourceStatus status = toStatus(googleSnapshot);
-                        if(status != null)statuses.add(status);
+            final Compute gce = provider.getGoogleCompute();
+            return new PagedIterable<SnapshotList, ResourceStatus>("retrieving snapshot status") {
+                @Override
+                protected SnapshotList fetch(String pageToken) throws IOException {
+                    return gce.snapshots().list(provider.getContext().getAccountNumber()).setFields(FieldMask.SNAPSHOT.forList(provider)).setPageToken(pageToken).execute();
+                }
+
+                @Override
+                protected String getNextPageToken(@Nonnull SnapshotList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<ResourceStatus> toItems(@Nonnull SnapshotList page) throws CloudException {
+                    ArrayList<ResourceStatus> statuses = new ArrayList<ResourceStatus>();
+                    if(page.getItems() != null){
+                        for(com.google.api.services.compute.model.Snapshot googleSnapshot : page.getItems()){
+                            ResourceStatus status = toStatus(googleSnapshot);
+                            if(status != null)statuses.add(status);
+                        }
                     }
+                    return statuses;
                 }
-                return statuses;
-    	    } catch (IOException ex) {
-                logger.error(ex.getMessage());
-    			if (ex.getClass() == GoogleJsonResponseException.class) {
-    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-    			} else
-                    throw new CloudException("An error occurred retrieving snapshot status");
-    		}
+            }.start();
         }
         finally {
             APITrace.end();
         }
     }
 
+    /**
+     * Streams the snapshots page by page. Iterating past the first page throws a
+     * {@link PagedListingException} if a later page cannot be read.
+     */
     @Override
     public @Nonnull Iterable<Snapshot> listSnapshots() throws InternalException, CloudException{
         APITrace.begin(provider, "Snapshot.listSnapshots");
         try{
-            ArrayList<Snapshot> snapshots = new ArrayList<Snapshot>();
-            Compute gce = provider.getGoogleCompute();
-            try{
-                SnapshotList list = gce.snapshots().list(provider.getContext().getAccountNumber()).execute();
-                if(list != null && list.getItems() != null && list.getItems().size() > 0){
-                    for(com.google.api.services.compute.model.Snapshot googleSnapshot : list.getItems()){
-                        Snapshot snapshot = toSnapshot(googleSnapshot);
-                        if(snapshot != null)snapshots.add(snapshot);
+            final Compute gce = provider.getGoogleCompute();
+            return new PagedIterable<SnapshotList, Snapshot>("listing snapshots") {
+                @Override
+                protected SnapshotList fetch(String pageToken) throws IOException {
+                    return gce.snapshots().list(provider.getContext().getAccountNumber()).setFields(FieldMask.SNAPSHOT.forList(provider)).setPageToken(pageToken).execute();
+                }
+
+                @Override
+                protected String getNextPageToken(@Nonnull SnapshotList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<Snapshot> toItems(@Nonnull SnapshotList page) {
+                    ArrayList<Snapshot> snapshots = new ArrayList<Snapshot>();
+                    if(page.getItems() != null){
+                        for(com.google.api.services.compute.model.Snapshot googleSnapshot : page.getItems()){
+                            Snapshot snapshot = toSnapshot(googleSnapshot);
+                            if(snapshot != null)snapshots.add(snapshot);
+                        }
                     }
+                    return snapshots;
                 }
-                return snapshots;
-    	    } catch (IOException ex) {
-                logger.error(ex.getMessage());
-    			if (ex.getClass() == GoogleJsonResponseException.class) {
-    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-    			} else
-                    throw new CloudException("An error occurred while listing snapshots: " + ex.getMessage());
-    		}
+            }.start();
         }
         finally {
             APITrace.end();
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.compute.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The zone of each known instance of a project, keyed by instance name. Every listing and launch records the
+ * instances it sees and terminating an instance forgets it, so operations on a single VM can address its zone
+ * directly instead of searching the project for it. An entry may still go stale when an instance is deleted and
+ * its name reused elsewhere outside this library; callers treat a 404 from the recorded zone as a miss.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class VmLocationIndex {
+    static private final ConcurrentMap<String, VmLocationIndex> indexes = new ConcurrentHashMap<String, VmLocationIndex>();
+
+    /**
+     * @param project the project the instances belong to
+     * @return the shared index of the project
+     */
+    static @Nonnull VmLocationIndex getInstance(@Nonnull String project) {
+        VmLocationIndex index = indexes.get(project);
+
+        if( index == null ) {
+            VmLocationIndex created = new VmLocationIndex();
+
+            index = indexes.putIfAbsent(project, created);
+            if( index == null ) {
+                index = created;
+            }
+        }
+        return index;
+    }
+
+    private final ConcurrentMap<String, String> zonesByName = new ConcurrentHashMap<String, String>();
+
+    private VmLocationIndex() { }
+
+    /**
+     * @param vmName the name of an instance
+     * @return the zone the instance was last seen in, or null if it is not known
+     */
+    @Nullable String getZone(@Nonnull String vmName) {
+        return zonesByName.get(vmName);
+    }
+
+    /**
+     * @param vmName the name of an instance
+     * @param zone the zone name, optionally given as a self link
+     */
+    void put(@Nonnull String vmName, @Nonnull String zone) {
+        zonesByName.put(vmName, zone.substring(zone.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * @param vmName the name of an instance that no longer exists
+     */
+    void remove(@Nonnull String vmName) {
+        zonesByName.remove(vmName);
+    }
+}
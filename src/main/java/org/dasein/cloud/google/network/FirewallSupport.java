@@ -42,10 +42,12 @@ import org.dasein.cloud.OperationNotSupportedException;
 import org.dasein.cloud.ProviderContext;
 import org.dasein.cloud.ResourceStatus;
 import org.dasein.cloud.VisibleScope;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
+import org.dasein.cloud.google.PagedIterable;
 import org.dasein.cloud.google.capabilities.GCEFirewallCapabilities;
 import org.dasein.cloud.network.AbstractFirewallSupport;
 import org.dasein.cloud.network.Direction;
@@ -213,15 +215,10 @@ public class FirewallSupport extends AbstractFirewallSupport<Google> {
 
         Compute gce = provider.getGoogleCompute();
         try {
-            Network firewall = gce.networks().get(ctx.getAccountNumber(), firewallId.split("fw-")[1]).execute();
-
-            FirewallList firewallList = gce.firewalls().list(ctx.getAccountNumber()).setFilter("network eq .*/" + firewall.getName()).execute();
-            if (null != firewallList) {
-                List<com.google.api.services.compute.model.Firewall> rules = firewallList.getItems();
-                return toFirewall(firewall, rules);
-            } else {
-                throw new CloudException("Firewall Not Found.");
-            }
+            Network firewall = gce.networks().get(ctx.getAccountNumber(), firewallId.split("fw-")[1]).setFields(FieldMask.NETWORK.forGet(provider)).execute();
+
+            List<com.google.api.services.compute.model.Firewall> rules = listGoogleFirewalls(gce, ctx.getAccountNumber(), "network eq .*/" + firewall.getName());
+            return toFirewall(firewall, rules);
         } catch (IOException ex) {
             logger.error("An error occurred while getting firewall " + firewallId + ": " + ex.getMessage());
             if (ex.getClass() == GoogleJsonResponseException.class) {
@@ -244,24 +241,48 @@ public class FirewallSupport extends AbstractFirewallSupport<Google> {
         }
 
         Compute gce = provider.getGoogleCompute();
-        try{
-            firewallId = firewallId.replaceFirst("^fw-", "");  // remove 'fw-' if its present, if not... then see if whats there works
-            FirewallList rules = gce.firewalls().list(ctx.getAccountNumber()).setFilter("network eq .*" + firewallId).execute();
-            if ((rules != null) && (null != rules.getItems())) {
-                return toFirewallRules(rules.getItems());
-            } else {
-                return Collections.emptyList();
-            }
-        } catch (IOException ex) {
-            logger.error("An error occurred while getting firewall " + firewallId + ": " + ex.getMessage());
-            if (ex.getClass() == GoogleJsonResponseException.class) {
-               GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-               throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-            } else
-                throw new CloudException(ex.getMessage());
+        firewallId = firewallId.replaceFirst("^fw-", "");  // remove 'fw-' if its present, if not... then see if whats there works
+        List<com.google.api.services.compute.model.Firewall> rules = listGoogleFirewalls(gce, ctx.getAccountNumber(), "network eq .*" + firewallId);
+        if (!rules.isEmpty()) {
+            return toFirewallRules(rules);
+        } else {
+            return Collections.emptyList();
         }
     }
 
+    /**
+     * Pages through the GCE firewall rules of a project.
+     * @param gce the compute client
+     * @param project the project owning the rules
+     * @param filter an optional list filter
+     * @return every matching rule
+     */
+    private @Nonnull List<com.google.api.services.compute.model.Firewall> listGoogleFirewalls(@Nonnull final Compute gce, @Nonnull final String project, @Nullable final String filter) throws CloudException, InternalException {
+        return new PagedIterable<FirewallList, com.google.api.services.compute.model.Firewall>("listing Firewalls") {
+            @Override
+            protected FirewallList fetch(String pageToken) throws IOException {
+                Compute.Firewalls.List request = gce.firewalls().list(project).setFields(FieldMask.FIREWALL_RULE.forList(provider)).setPageToken(pageToken);
+                if (filter != null) {
+                    request.setFilter(filter);
+                }
+                return request.execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull FirewallList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<com.google.api.services.compute.model.Firewall> toItems(@Nonnull FirewallList page) {
+                if (page.getItems() == null) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+    }
+
     @Override
     public boolean isSubscribed() throws CloudException, InternalException {
         return true;
@@ -275,41 +296,41 @@ public class FirewallSupport extends AbstractFirewallSupport<Google> {
             throw new InternalException("No context was established");
 
         ArrayList<Firewall> firewalls = new ArrayList<Firewall>();
-        try {
-            Compute gce = provider.getGoogleCompute();
+        final Compute gce = provider.getGoogleCompute();
+        final String project = ctx.getAccountNumber();
 
-            NetworkList networkList = gce.networks().list(ctx.getAccountNumber()).execute();
-            if (null != networkList) {
-                List<Network> networks = networkList.getItems();
-
-                FirewallList firewallList = gce.firewalls().list(ctx.getAccountNumber()).execute();
-                if (null != firewallList) {
-                    List<com.google.api.services.compute.model.Firewall> rules = firewallList.getItems();
-
-                    if (networks != null && networks.size() > 0) {
-                        for (Network network : networks) {
-                            List<com.google.api.services.compute.model.Firewall> rulesSubset = new ArrayList <com.google.api.services.compute.model.Firewall>();
-                            if (null != rules) {
-                                for (com.google.api.services.compute.model.Firewall rule : rules)
-                                    if (rule.getNetwork().equals(network.getSelfLink()))
-                                        rulesSubset.add(rule);
-                            }
-                            if (network != null) {
-                                Firewall firewall = toFirewall(network, rulesSubset);
-                                if (firewall != null)
-                                    firewalls.add(firewall);
-                            }
-                        }
-                    }
+        List<Network> networks = new PagedIterable<NetworkList, Network>("listing Firewalls") {
+            @Override
+            protected NetworkList fetch(String pageToken) throws IOException {
+                return gce.networks().list(project).setFields(FieldMask.NETWORK.forList(provider)).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull NetworkList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Network> toItems(@Nonnull NetworkList page) {
+                if (page.getItems() == null) {
+                    return Collections.emptyList();
                 }
+                return page.getItems();
+            }
+        }.toList();
+
+        if (networks.size() > 0) {
+            List<com.google.api.services.compute.model.Firewall> rules = listGoogleFirewalls(gce, project, null);
+
+            for (Network network : networks) {
+                List<com.google.api.services.compute.model.Firewall> rulesSubset = new ArrayList <com.google.api.services.compute.model.Firewall>();
+                for (com.google.api.services.compute.model.Firewall rule : rules)
+                    if (rule.getNetwork().equals(network.getSelfLink()))
+                        rulesSubset.add(rule);
+                Firewall firewall = toFirewall(network, rulesSubset);
+                if (firewall != null)
+                    firewalls.add(firewall);
             }
-        } catch (IOException ex) {
-            logger.error(ex.getMessage());
-            if (ex.getClass() == GoogleJsonResponseException.class) {
-                GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-            } else
-                throw new CloudException("An error occurred while listing Firewalls: " + ex.getMessage());
         }
         return firewalls;
     }
@@ -35,6 +35,7 @@ import org.dasein.cloud.ProviderContext;
 import org.dasein.cloud.Requirement;
 import org.dasein.cloud.ResourceStatus;
 import org.dasein.cloud.compute.VirtualMachine;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
@@ -143,7 +144,7 @@ public class IPAddressSupport extends AbstractIpAddressSupport<Google> {
         try{
             try{
                 Compute gce = getProvider().getGoogleCompute();
-                AddressAggregatedList addressList = gce.addresses().aggregatedList(getContext().getAccountNumber()).setFilter("name eq " + addressId).execute();
+                AddressAggregatedList addressList = gce.addresses().aggregatedList(getContext().getAccountNumber()).setFilter("name eq " + addressId).setFields(FieldMask.ADDRESS.forAggregatedList(getProvider(), "addresses")).execute();
                 if(addressList != null && addressList.getItems() != null && !addressList.getItems().isEmpty())        {
                     Iterator<String> regions = addressList.getItems().keySet().iterator();
                     while(regions.hasNext()){
@@ -174,7 +175,7 @@ public class IPAddressSupport extends AbstractIpAddressSupport<Google> {
     public String getIpAddressIdFromIP(@Nonnull String ipAddress, @Nonnull String regionId)throws InternalException, CloudException{
         try{
             Compute gce = getProvider().getGoogleCompute();
-            AddressList addressList = gce.addresses().list(getContext().getAccountNumber(), regionId).execute();
+            AddressList addressList = gce.addresses().list(getContext().getAccountNumber(), regionId).setFields(FieldMask.ADDRESS.forList(getProvider())).execute();
             if(addressList != null && addressList.getItems() != null && !addressList.getItems().isEmpty()){
                 for(Address address : addressList.getItems()){
                     if(ipAddress.equals(address.getAddress()))return address.getName();
@@ -277,7 +278,7 @@ public class IPAddressSupport extends AbstractIpAddressSupport<Google> {
             List<IpAddress> addresses = new ArrayList<IpAddress>();
             try{
                 Compute gce = getProvider().getGoogleCompute();
-                AddressList addressList = gce.addresses().list(getContext().getAccountNumber(), getContext().getRegionId()).execute();
+                AddressList addressList = gce.addresses().list(getContext().getAccountNumber(), getContext().getRegionId()).setFields(FieldMask.ADDRESS.forList(getProvider())).execute();
                 if(addressList != null && addressList.getItems() != null && !addressList.getItems().isEmpty()){
                     for(Address address : addressList.getItems()){
                         IpAddress ipAddress = toIpAddress(address);
@@ -310,7 +311,7 @@ public class IPAddressSupport extends AbstractIpAddressSupport<Google> {
             List<ResourceStatus> statuses = new ArrayList<ResourceStatus>();
             try{
                 Compute gce = getProvider().getGoogleCompute();
-                AddressAggregatedList addressList = gce.addresses().aggregatedList(getContext().getAccountNumber()).execute();
+                AddressAggregatedList addressList = gce.addresses().aggregatedList(getContext().getAccountNumber()).setFields(FieldMask.ADDRESS.forAggregatedList(getProvider(), "addresses")).execute();
                 Iterator<String> regions = addressList.getItems().keySet().iterator();
                 while(regions.hasNext()){
                     String region = regions.next();
@@ -21,10 +21,23 @@ package org.dasein.cloud.google.network;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -40,6 +53,8 @@ import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
 import org.dasein.cloud.google.Google;
+import org.dasein.cloud.google.NameFilter;
+import org.dasein.cloud.google.PagedIterable;
 import org.dasein.cloud.google.capabilities.GCELoadBalancerCapabilities;
 import org.dasein.cloud.network.AbstractLoadBalancerSupport;
 import org.dasein.cloud.network.HealthCheckFilterOptions;
@@ -63,16 +78,24 @@ import org.dasein.cloud.network.LoadBalancerHealthCheck.HCProtocol;
 import org.dasein.cloud.network.LoadBalancerState;
 import org.dasein.cloud.util.APITrace;
 
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.ForwardingRule;
 import com.google.api.services.compute.model.ForwardingRuleList;
 import com.google.api.services.compute.model.HealthCheckReference;
+import com.google.api.services.compute.model.HealthStatus;
 import com.google.api.services.compute.model.HttpHealthCheck;
+import com.google.api.services.compute.model.Instance;
+import com.google.api.services.compute.model.InstanceList;
 import com.google.api.services.compute.model.InstanceReference;
 import com.google.api.services.compute.model.Operation;
 import com.google.api.services.compute.model.Region;
 import com.google.api.services.compute.model.TargetPool;
+import com.google.api.services.compute.model.TargetPoolInstanceHealth;
 import com.google.api.services.compute.model.TargetPoolList;
 import com.google.api.services.compute.model.TargetPoolsAddHealthCheckRequest;
 import com.google.api.services.compute.model.TargetPoolsAddInstanceRequest;
@@ -87,16 +110,26 @@ import com.google.api.services.compute.model.TargetPoolsRemoveInstanceRequest;
 public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     static private final Logger logger = Logger.getLogger(AbstractLoadBalancerSupport.class);
 
+    static private final int MAX_BATCH_SIZE = 100;
+    static private final int MAX_HEALTH_BATCHES_IN_FLIGHT = 4;
+
+    static private final ExecutorService healthCheckers = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-lb-health-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
     private volatile transient GCELoadBalancerCapabilities capabilities;
-    private Google provider = null;
-    private ProviderContext ctx = null;
-    private Compute gce = null;
+    private final Google provider;
 
     public LoadBalancerSupport(Google provider) {
         super(provider);
         this.provider = provider;
-
-        ctx = provider.getContext(); 
     }
 
     @Nonnull
@@ -125,25 +158,13 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
         }
     }
 
-	private void releaseLoadBalancerIp(@Nonnull LoadBalancer lb) throws CloudException, InternalException {
-	    
-        try {
-            if ((lb.getAddress() != null) && (!lb.getAddress().equals(""))) {
-                IPAddressSupport ipSupport = provider.getNetworkServices().getIpAddressSupport();
-                String ip = lb.getAddress();
-                if (ip != null)
-                    ipSupport.releaseFromPool(ipSupport.getIpAddressIdFromIP(ip, provider.getContext().getRegionId()));
-            }
-        } catch (Exception e) {
-            throw new CloudException(e);
-        }
-	}
-	
     @Override
     public void removeLoadBalancer(@Nonnull String loadBalancerId) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.removeLoadBalancer");
 
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+
+        Compute gce = provider.getGoogleCompute();
 
         // Release IP used by Forwarding Rules [probably not desired]
         LoadBalancer lb = this.getLoadBalancer(loadBalancerId);
@@ -179,7 +200,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     }
 
     public String getLoadBalancerHealthCheckName(@Nonnull String loadBalancerId) throws CloudException, InternalException {
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         TargetPool tp;
         try {
             tp = gce.targetPools().get(ctx.getAccountNumber(), ctx.getRegionId(), loadBalancerId).execute();
@@ -204,7 +226,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     private List<String> getForwardingRules(String targetPoolName) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.getForwardingRule");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         List<String> forwardingRuleNames = new ArrayList<String>();
         try {
@@ -251,7 +274,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     @Override
     public void removeListeners(String toLoadBalancerId, LbListener[] listeners) throws CloudException, InternalException {
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         ForwardingRule forwardingRule = null;
         List<String> existingForwardingRuleNames = getForwardingRules(toLoadBalancerId);
         try {
@@ -293,7 +317,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     private void removeLoadBalancerForwardingRule(String forwardingRuleName) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.removeLoadBalancerForwardingRule");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         try {
             Operation job = gce.forwardingRules().delete(ctx.getAccountNumber(), ctx.getRegionId(), forwardingRuleName).execute();
@@ -316,7 +341,9 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     public @Nonnull String createLoadBalancer(@Nonnull LoadBalancerCreateOptions options) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.create");
 
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+
+        Compute gce = provider.getGoogleCompute();
         try {
             TargetPool tp = new TargetPool();
             tp.setRegion(ctx.getRegionId());
@@ -352,7 +379,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     @Override
     public void addListeners(String toLoadBalancerId, LbListener[] listeners) throws CloudException, InternalException {
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         int index = 0;
 
         try {
@@ -409,7 +437,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     void createLoadBalancerForwardingRule(@Nonnull LoadBalancerCreateOptions options)  throws CloudException, InternalException {
         APITrace.begin(provider, "LB.createLoadBalancerForwardingRule");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         LbListener[] listeners = options.getListeners();
 
@@ -497,7 +526,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public LoadBalancerHealthCheck createLoadBalancerHealthCheck(@Nullable String name, @Nullable String description, @Nullable String host, @Nullable LoadBalancerHealthCheck.HCProtocol protocol, int port, @Nullable String path, int interval, int timeout, int healthyCount, int unhealthyCount) throws CloudException, InternalException{
         APITrace.begin(provider, "LB.createLoadBalancerHealthCheck");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         HttpHealthCheck hc = new HttpHealthCheck();
 
@@ -533,7 +563,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public void attachHealthCheckToLoadBalancer(@Nonnull String providerLoadBalancerId, @Nonnull String providerLBHealthCheckId)throws CloudException, InternalException{
         APITrace.begin(provider, "LB.attachHealthCheckToLoadBalancer");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         HttpHealthCheck hc = null;
         try {
@@ -622,7 +653,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public Iterable<LoadBalancerHealthCheck> listLBHealthChecks(@Nullable HealthCheckFilterOptions opts) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.listLBHealthChecks");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         ArrayList<LoadBalancerHealthCheck> lbhc = new ArrayList<LoadBalancerHealthCheck>();
 
@@ -666,7 +698,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
 	public void removeLoadBalancerHealthCheck(String healthCheckId) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.removeLoadBalancerHealthCheck");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         try {
             Operation job = gce.httpHealthChecks().delete(ctx.getAccountNumber(), healthCheckId).execute();
             GoogleMethod method = new GoogleMethod(provider);
@@ -692,7 +725,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public LoadBalancerHealthCheck modifyHealthCheck(@Nonnull String providerLBHealthCheckId, @Nonnull HealthCheckOptions options) throws InternalException, CloudException{
         APITrace.begin(provider, "LB.modifyHealthCheck");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         HttpHealthCheck hc = null;
         try {
@@ -739,7 +773,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
 
     private LoadBalancerHealthCheck getLoadBalancerHealthCheck(@Nonnull String providerLBHealthCheckId)throws CloudException, InternalException{
         APITrace.begin(provider, "LB.getLoadBalancerHealthCheck");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         HttpHealthCheck hc = null;
         LoadBalancerHealthCheck lbhc = null;
@@ -766,12 +801,14 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public @Nullable LoadBalancer getLoadBalancer(@Nonnull String loadBalancerId) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.getLoadBalancer");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         LoadBalancer lb = null;
         try {
             TargetPool tp = gce.targetPools().get(ctx.getAccountNumber(), ctx.getRegionId(), loadBalancerId).execute();
-            lb = toLoadBalancer(tp);
+            List<ForwardingRule> rules = listForwardingRulesByTarget(gce, ctx).get(tp.getSelfLink());
+            lb = toLoadBalancer(ctx, tp, rules, listZones(gce, ctx));
         } catch (Exception e) {
             lb = null;
         }
@@ -784,7 +821,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public void addServers(@Nonnull String toLoadBalancerId, @Nonnull String ... serverIdsToAdd) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.addServers");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         String vmRegion = null;
         try {
             List<InstanceReference> instances = new ArrayList<InstanceReference>();
@@ -810,7 +848,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public void removeServers(@Nonnull String fromLoadBalancerId, @Nonnull String ... serverIdsToRemove) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.removeServers");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         List<InstanceReference> replacementInstances = new ArrayList<InstanceReference>();
         try {
@@ -844,7 +883,8 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
     @Override
     public @Nonnull Iterable<LoadBalancerEndpoint> listEndpoints(@Nonnull String forLoadBalancerId) throws CloudException, InternalException {
         APITrace.begin(provider, "LB.listEndpoints");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
 
         TargetPool tp = null;
         try {
@@ -864,12 +904,13 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
             ArrayList<LoadBalancerEndpoint> list = new ArrayList<LoadBalancerEndpoint>();
             List<String> instances = tp.getInstances();
             if (instances != null) {
-                for (String instanceName : instances) {
-                    try {
-                        String instance = provider.getComputeServices().getVirtualMachineSupport().getVmIdFromName(instanceName.substring(1 + instanceName.lastIndexOf("/")));
+                Map<String, String> vmIds = resolveVmIds(gce, instances);
+                for (String instanceUrl : instances) {
+                    String instance = vmIds.get(instanceUrl);
+                    if (instance == null) {
+                        logger.warn("VM instance " + instanceUrl.substring(1 + instanceUrl.lastIndexOf("/")) + " referenced by load balancer end point does not exist.");
+                    } else {
                         list.add(LoadBalancerEndpoint.getInstance(LbEndpointType.VM, instance, LbEndpointState.ACTIVE));
-                    } catch (CloudException e) {
-                        logger.warn("VM instance " + instanceName.substring(1 + instanceName.lastIndexOf("/")) + " referenced by load balancer end point does not exist.");
                     }
                 }
             }
@@ -880,49 +921,213 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
         }
     }
 
+    /**
+     * Resolves the dasein ids (name_id) of target pool members from their self links. Members are grouped by the
+     * project and zone in their links and each group is fetched with one filtered listing that returns only names and ids.
+     * @param instanceUrls instance self links, .../projects/{project}/zones/{zone}/instances/{name}
+     * @return the VM id for each self link that still exists
+     */
+    private @Nonnull Map<String, String> resolveVmIds(@Nonnull final Compute gce, @Nonnull List<String> instanceUrls) throws CloudException, InternalException {
+        Map<String, List<String>> urlsByZone = new HashMap<String, List<String>>();
+        for (String url : instanceUrls) {
+            String[] parts = url.split("/");
+            if (parts.length < 5) {
+                continue;
+            }
+            String key = parts[parts.length - 5] + "/" + parts[parts.length - 3];
+            List<String> urls = urlsByZone.get(key);
+            if (urls == null) {
+                urls = new ArrayList<String>();
+                urlsByZone.put(key, urls);
+            }
+            urls.add(url);
+        }
+
+        Map<String, String> vmIds = new HashMap<String, String>();
+        for (Map.Entry<String, List<String>> entry : urlsByZone.entrySet()) {
+            final String project = entry.getKey().substring(0, entry.getKey().indexOf('/'));
+            final String zone = entry.getKey().substring(entry.getKey().indexOf('/') + 1);
+            List<String> urls = entry.getValue();
+            Map<String, String> urlsByName = new HashMap<String, String>();
+            for (String url : urls) {
+                urlsByName.put(url.substring(url.lastIndexOf('/') + 1), url);
+            }
+
+            for (final String filter : NameFilter.chunked(new ArrayList<String>(urlsByName.keySet()))) {
+                List<Instance> found = new PagedIterable<InstanceList, Instance>("resolving load balancer members in " + zone) {
+                    @Override
+                    protected InstanceList fetch(String pageToken) throws IOException {
+                        return gce.instances().list(project, zone).setFilter(filter).setFields("items(name,id),nextPageToken").setPageToken(pageToken).execute();
+                    }
+
+                    @Override
+                    protected String getNextPageToken(@Nonnull InstanceList page) {
+                        return page.getNextPageToken();
+                    }
+
+                    @Override
+                    protected @Nonnull Collection<Instance> toItems(@Nonnull InstanceList page) {
+                        if (page.getItems() == null) {
+                            return Collections.emptyList();
+                        }
+                        return page.getItems();
+                    }
+                }.toList();
+
+                for (Instance instance : found) {
+                    String url = urlsByName.get(instance.getName());
+                    if (url != null) {
+                        vmIds.put(url, instance.getName() + "_" + instance.getId());
+                    }
+                }
+            }
+        }
+        return vmIds;
+    }
+
     @Override
     public @Nonnull Iterable<ResourceStatus> listLoadBalancerStatus() throws CloudException, InternalException {
 
-        APITrace.begin(provider, "LB.listLoadBalancers");
-        gce = provider.getGoogleCompute();
+        APITrace.begin(provider, "LB.listLoadBalancerStatus");
+        final ProviderContext ctx = provider.getContext();
+        final Compute gce = provider.getGoogleCompute();
         ArrayList<ResourceStatus> list = new ArrayList<ResourceStatus>();
 
         try {
-            TargetPoolList tpl = gce.targetPools().list(ctx.getAccountNumber(), ctx.getRegionId()).execute();
-            if ((tpl != null) && (tpl.getItems() != null)) { 
-                Iterator<TargetPool> loadBalancers = tpl.getItems().iterator();
+            List<TargetPool> pools = new PagedIterable<TargetPoolList, TargetPool>("listing target pools") {
+                @Override
+                protected TargetPoolList fetch(String pageToken) throws IOException {
+                    return gce.targetPools().list(ctx.getAccountNumber(), ctx.getRegionId()).setFields("items(name,instances),nextPageToken").setPageToken(pageToken).execute();
+                }
 
-                while (loadBalancers.hasNext()) {
-                    TargetPool lb = loadBalancers.next();
-                    List<String> healthChecks = lb.getHealthChecks();
-                    if (null == healthChecks) {
-                        list.add(new ResourceStatus(lb.getName(), "UNKNOWN"));
-                    } else {
-                        for (String healthCheckName : healthChecks) {
-                            healthCheckName = healthCheckName.substring(healthCheckName.lastIndexOf("/") + 1);
-                            LoadBalancerHealthCheck healthCheck = getLoadBalancerHealthCheck(healthCheckName);
-                            list.add(new ResourceStatus(lb.getName(), "UNKNOWN"));  // TODO: (Roger)work out the proper status for this. check 0,1, and many loadbalancer cases
+                @Override
+                protected String getNextPageToken(@Nonnull TargetPoolList page) {
+                    return page.getNextPageToken();
+                }
+
+                @Override
+                protected @Nonnull Collection<TargetPool> toItems(@Nonnull TargetPoolList page) {
+                    if (page.getItems() == null) {
+                        return Collections.emptyList();
+                    }
+                    return page.getItems();
+                }
+            }.toList();
+
+            // every (pool, member) pair becomes one getHealth call, sent in batches of up to 100 calls
+            final Map<String, AtomicInteger> healthy = new ConcurrentHashMap<String, AtomicInteger>();
+            final Map<String, AtomicInteger> unreadable = new ConcurrentHashMap<String, AtomicInteger>();
+            List<List<String[]>> batches = new ArrayList<List<String[]>>();
+            List<String[]> batch = new ArrayList<String[]>();
+            for (TargetPool pool : pools) {
+                healthy.put(pool.getName(), new AtomicInteger());
+                unreadable.put(pool.getName(), new AtomicInteger());
+                if (pool.getInstances() != null) {
+                    for (String instance : pool.getInstances()) {
+                        if (batch.size() == MAX_BATCH_SIZE) {
+                            batches.add(batch);
+                            batch = new ArrayList<String[]>();
                         }
+                        batch.add(new String[] { pool.getName(), instance });
                     }
                 }
             }
+            if (!batch.isEmpty()) {
+                batches.add(batch);
+            }
+            runHealthBatches(gce, ctx, batches, healthy, unreadable);
+
+            for (TargetPool pool : pools) {
+                int members = (pool.getInstances() == null ? 0 : pool.getInstances().size());
+                int up = healthy.get(pool.getName()).get();
+                String status;
+                // a member whose health could not be read says nothing about the pool, so the pool is not judged either
+                if (members == 0 || unreadable.get(pool.getName()).get() > 0) {
+                    status = "UNKNOWN";
+                } else if (up == members) {
+                    status = "HEALTHY";
+                } else if (up == 0) {
+                    status = "UNHEALTHY";
+                } else {
+                    status = "DEGRADED";
+                }
+                list.add(new ResourceStatus(pool.getName(), status));
+            }
             return list;
-        } catch (IOException e) {
-            if (e.getClass() == GoogleJsonResponseException.class) {
-                GoogleJsonResponseException gjre = (GoogleJsonResponseException)e;
-                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-            } else
-                throw new CloudException(e);
         }
         finally {
             APITrace.end();
         }
     }
 
+    /**
+     * Sends the getHealth batches with a bounded number in flight, counting the healthy members of each pool and
+     * the members whose health could not be read, whether their call or their whole batch failed.
+     */
+    private void runHealthBatches(@Nonnull final Compute gce, @Nonnull final ProviderContext ctx, @Nonnull List<List<String[]>> batches, @Nonnull final Map<String, AtomicInteger> healthy, @Nonnull final Map<String, AtomicInteger> unreadable) throws InternalException {
+        CompletionService<Void> completion = new ExecutorCompletionService<Void>(healthCheckers);
+        Map<Future<Void>, List<String[]>> running = new HashMap<Future<Void>, List<String[]>>();
+        Iterator<List<String[]>> pending = batches.iterator();
+
+        try {
+            while (pending.hasNext() || !running.isEmpty()) {
+                while (running.size() < MAX_HEALTH_BATCHES_IN_FLIGHT && pending.hasNext()) {
+                    final List<String[]> members = pending.next();
+                    running.put(completion.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws IOException {
+                            BatchRequest request = gce.batch();
+                            for (final String[] member : members) {
+                                gce.targetPools().getHealth(ctx.getAccountNumber(), ctx.getRegionId(), member[0], new InstanceReference().setInstance(member[1])).queue(request, new JsonBatchCallback<TargetPoolInstanceHealth>() {
+                                    @Override
+                                    public void onSuccess(TargetPoolInstanceHealth health, HttpHeaders responseHeaders) {
+                                        if (health.getHealthStatus() != null) {
+                                            for (HealthStatus status : health.getHealthStatus()) {
+                                                if ("HEALTHY".equals(status.getHealthState())) {
+                                                    healthy.get(member[0]).incrementAndGet();
+                                                    return;
+                                                }
+                                            }
+                                        }
+                                    }
+
+                                    @Override
+                                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                                        logger.warn("Unable to read health of " + member[1] + " in " + member[0] + ": " + error.getMessage());
+                                        unreadable.get(member[0]).incrementAndGet();
+                                    }
+                                });
+                            }
+                            request.execute();
+                            return null;
+                        }
+                    }), members);
+                }
+                Future<Void> done = completion.take();
+                List<String[]> members = running.remove(done);
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    logger.warn("Unable to read health of " + members.size() + " load balancer members: " + e.getCause().getMessage());
+                    for (String[] member : members) {
+                        unreadable.get(member[0]).incrementAndGet();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Future<Void> future : running.keySet()) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+    }
+
     @Override
     public @Nonnull Iterable<LoadBalancer> listLoadBalancers() throws CloudException, InternalException {
         APITrace.begin(provider, "LB.listLoadBalancers");
-        gce = provider.getGoogleCompute();
+        ProviderContext ctx = provider.getContext();
+        Compute gce = provider.getGoogleCompute();
         ArrayList<LoadBalancer> list = new ArrayList<LoadBalancer>();
         try {
             if (null == ctx.getAccountNumber())
@@ -931,12 +1136,13 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
                 throw new InternalException("RegionId cannot be null");
             TargetPoolList tpl = gce.targetPools().list(ctx.getAccountNumber(), ctx.getRegionId()).execute();
 
-            if ((tpl != null) && (tpl.getItems() != null)) { 
-                Iterator<TargetPool> loadBalancers = tpl.getItems().iterator();
+            if ((tpl != null) && (tpl.getItems() != null)) {
+                // fetch the region's forwarding rules and zones once and build every load balancer from them
+                Map<String, List<ForwardingRule>> rulesByTarget = listForwardingRulesByTarget(gce, ctx);
+                List<String> zones = listZones(gce, ctx);
 
-                while (loadBalancers.hasNext()) {
-                    TargetPool lb = loadBalancers.next();
-                    LoadBalancer loadBalancer = toLoadBalancer(lb);
+                for (TargetPool lb : tpl.getItems()) {
+                    LoadBalancer loadBalancer = toLoadBalancer(ctx, lb, rulesByTarget.get(lb.getSelfLink()), zones);
                     if( loadBalancer != null ) {
                         list.add(loadBalancer);
                     }
@@ -955,8 +1161,67 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
         }
     }
 
-    private LoadBalancer toLoadBalancer(TargetPool tp) throws CloudException, InternalException {
-        gce = provider.getGoogleCompute();
+    /**
+     * Lists the forwarding rules of the context region once, indexed by the self link of the target pool they send
+     * traffic to.
+     */
+    private @Nonnull Map<String, List<ForwardingRule>> listForwardingRulesByTarget(@Nonnull final Compute gce, @Nonnull final ProviderContext ctx) throws CloudException, InternalException {
+        Map<String, List<ForwardingRule>> rulesByTarget = new HashMap<String, List<ForwardingRule>>();
+        List<ForwardingRule> rules = new PagedIterable<ForwardingRuleList, ForwardingRule>("listing forwarding rules") {
+            @Override
+            protected ForwardingRuleList fetch(String pageToken) throws IOException {
+                return gce.forwardingRules().list(ctx.getAccountNumber(), ctx.getRegionId()).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull ForwardingRuleList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<ForwardingRule> toItems(@Nonnull ForwardingRuleList page) {
+                if (page.getItems() == null) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+
+        for (ForwardingRule rule : rules) {
+            if (rule.getTarget() == null) {
+                continue;
+            }
+            List<ForwardingRule> targetRules = rulesByTarget.get(rule.getTarget());
+            if (targetRules == null) {
+                targetRules = new ArrayList<ForwardingRule>();
+                rulesByTarget.put(rule.getTarget(), targetRules);
+            }
+            targetRules.add(rule);
+        }
+        return rulesByTarget;
+    }
+
+    /**
+     * @return the names of the zones of the context region, or an empty list if the region cannot be read
+     */
+    private @Nonnull List<String> listZones(@Nonnull Compute gce, @Nonnull ProviderContext ctx) {
+        List<String> zones = new ArrayList<String>();
+        try {
+            Region puzzle = gce.regions().get(ctx.getAccountNumber(), ctx.getRegionId()).execute();
+            List<String> longZones = puzzle.getZones();
+
+            for( String zone : longZones ) {
+                zone = zone.substring(zone.lastIndexOf("/") + 1);
+                zones.add(zone);
+            }
+        }
+        catch( Throwable ignore ) {
+
+        }
+        return zones;
+    }
+
+    private LoadBalancer toLoadBalancer(@Nonnull ProviderContext ctx, @Nonnull TargetPool tp, @Nullable List<ForwardingRule> forwardingRules, @Nonnull List<String> zones) throws CloudException, InternalException {
         List<String> hcl = tp.getHealthChecks();
         String healthCheckName = null;
         if ((hcl != null) && (!hcl.isEmpty())) {
@@ -970,45 +1235,22 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
         } catch (CloudException e) {
             throw new CloudException(e);
         }
-        ForwardingRule fr = null;
         String forwardingRuleAddress = null;
-        String forwardingRulePortRange = null;
         int ports[] = null;
         List<LbListener> listeners = new ArrayList<LbListener>();
-        try {
-            List<String> forwardingRuleNames = getForwardingRules(tp.getName());
-            for (String forwardingRuleName : forwardingRuleNames) {
-                fr = gce.forwardingRules().get(ctx.getAccountNumber(), ctx.getRegionId(), forwardingRuleName).execute();
-                if (fr != null) {
-                    forwardingRuleAddress = fr.getIPAddress();
-                    forwardingRulePortRange = fr.getPortRange();
-                    ports = portsToRange(forwardingRulePortRange);
-                    for (int port : ports) 
-                        // Hard Coded Algorithm and persistence, havent found a dynamic source yet.
-                        listeners.add(LbListener.getInstance(LbAlgorithm.SOURCE, LbPersistence.SUBNET, standardizeGCEProtocol(fr.getIPProtocol()), port, port));
-                }
+        if (forwardingRules != null) {
+            for (ForwardingRule fr : forwardingRules) {
+                forwardingRuleAddress = fr.getIPAddress();
+                ports = portsToRange(fr.getPortRange());
+                for (int port : ports)
+                    // Hard Coded Algorithm and persistence, havent found a dynamic source yet.
+                    listeners.add(LbListener.getInstance(LbAlgorithm.SOURCE, LbPersistence.SUBNET, standardizeGCEProtocol(fr.getIPProtocol()), port, port));
             }
-        } catch (IOException e) {
-            // Guess no forwarding rules for this one.
         }
 
         String region = tp.getRegion();
         region = region.substring(region.lastIndexOf("/") + 1);
 
-        List<String> zones = new ArrayList<String>();
-        try {
-            Region puzzle = gce.regions().get(ctx.getAccountNumber(), ctx.getRegionId()).execute();
-            List<String> longZones = puzzle.getZones();
-
-            for( String zone : longZones ) {
-                zone = zone.substring(zone.lastIndexOf("/") + 1);
-                zones.add(zone);
-            }
-        }
-        catch( Throwable ignore ) {
-
-        }
-
         String description = tp.getDescription();
         if (null == description) {
             description = tp.getName();
@@ -1033,7 +1275,7 @@ public class LoadBalancerSupport extends AbstractLoadBalancerSupport<Google>  {
         if (!listeners.isEmpty())
             lb = lb.withListeners(LBListeners);
         return lb;
-        }
+    }
 
     private int[] portsToRange(String portRange) {
         int[] ports;
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.google.PagedIterable;
+
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.ForwardingRule;
+import com.google.api.services.compute.model.ForwardingRuleAggregatedList;
+import com.google.api.services.compute.model.ForwardingRulesScopedList;
+import com.google.api.services.compute.model.TargetVpnGateway;
+import com.google.api.services.compute.model.TargetVpnGatewayAggregatedList;
+import com.google.api.services.compute.model.TargetVpnGatewaysScopedList;
+import com.google.api.services.compute.model.VpnTunnel;
+import com.google.api.services.compute.model.VpnTunnelAggregatedList;
+import com.google.api.services.compute.model.VpnTunnelsScopedList;
+
+/**
+ * The VPN tunnels, target VPN gateways and forwarding rules of a project across every region, each read with one
+ * paged aggregatedList call and joined in memory.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class VpnInventory {
+    /**
+     * Reads the tunnels, gateways and forwarding rules of the project.
+     * @param gce the compute client
+     * @param project the project to read
+     * @return the joined inventory
+     */
+    static @Nonnull VpnInventory load(@Nonnull Compute gce, @Nonnull String project) throws CloudException, InternalException {
+        Map<String, TargetVpnGateway> gateways = new HashMap<String, TargetVpnGateway>();
+        Map<String, List<ForwardingRule>> rules = new HashMap<String, List<ForwardingRule>>();
+
+        for( TargetVpnGateway gateway : listGateways(gce, project, null) ) {
+            gateways.put(gateway.getSelfLink(), gateway);
+        }
+        for( ForwardingRule rule : listForwardingRules(gce, project) ) {
+            if( rule.getTarget() == null ) {
+                continue;
+            }
+            List<ForwardingRule> targetRules = rules.get(rule.getTarget());
+
+            if( targetRules == null ) {
+                targetRules = new ArrayList<ForwardingRule>();
+                rules.put(rule.getTarget(), targetRules);
+            }
+            targetRules.add(rule);
+        }
+        return new VpnInventory(listTunnels(gce, project), gateways, rules);
+    }
+
+    /**
+     * @param gce the compute client
+     * @param project the project to read
+     * @return the VPN tunnels of every region
+     */
+    static @Nonnull List<VpnTunnel> listTunnels(@Nonnull final Compute gce, @Nonnull final String project) throws CloudException, InternalException {
+        return new PagedIterable<VpnTunnelAggregatedList, VpnTunnel>("listing VPN tunnels") {
+            @Override
+            protected VpnTunnelAggregatedList fetch(String pageToken) throws IOException {
+                return gce.vpnTunnels().aggregatedList(project).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull VpnTunnelAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<VpnTunnel> toItems(@Nonnull VpnTunnelAggregatedList page) {
+                List<VpnTunnel> items = new ArrayList<VpnTunnel>();
+
+                if( page.getItems() != null ) {
+                    for( VpnTunnelsScopedList scopedList : page.getItems().values() ) {
+                        if( scopedList.getVpnTunnels() != null ) {
+                            items.addAll(scopedList.getVpnTunnels());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+    }
+
+    /**
+     * @param gce the compute client
+     * @param project the project to read
+     * @param filter an optional list filter, such as "name eq my-vpn"
+     * @return the target VPN gateways of every region
+     */
+    static @Nonnull List<TargetVpnGateway> listGateways(@Nonnull final Compute gce, @Nonnull final String project, @Nullable final String filter) throws CloudException, InternalException {
+        return new PagedIterable<TargetVpnGatewayAggregatedList, TargetVpnGateway>("listing VPN gateways") {
+            @Override
+            protected TargetVpnGatewayAggregatedList fetch(String pageToken) throws IOException {
+                return gce.targetVpnGateways().aggregatedList(project).setFilter(filter).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull TargetVpnGatewayAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<TargetVpnGateway> toItems(@Nonnull TargetVpnGatewayAggregatedList page) {
+                List<TargetVpnGateway> items = new ArrayList<TargetVpnGateway>();
+
+                if( page.getItems() != null ) {
+                    for( TargetVpnGatewaysScopedList scopedList : page.getItems().values() ) {
+                        if( scopedList.getTargetVpnGateways() != null ) {
+                            items.addAll(scopedList.getTargetVpnGateways());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+    }
+
+    static private @Nonnull List<ForwardingRule> listForwardingRules(@Nonnull final Compute gce, @Nonnull final String project) throws CloudException, InternalException {
+        return new PagedIterable<ForwardingRuleAggregatedList, ForwardingRule>("listing forwarding rules") {
+            @Override
+            protected ForwardingRuleAggregatedList fetch(String pageToken) throws IOException {
+                return gce.forwardingRules().aggregatedList(project).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull ForwardingRuleAggregatedList page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<ForwardingRule> toItems(@Nonnull ForwardingRuleAggregatedList page) {
+                List<ForwardingRule> items = new ArrayList<ForwardingRule>();
+
+                if( page.getItems() != null ) {
+                    for( ForwardingRulesScopedList scopedList : page.getItems().values() ) {
+                        if( scopedList.getForwardingRules() != null ) {
+                            items.addAll(scopedList.getForwardingRules());
+                        }
+                    }
+                }
+                return items;
+            }
+        }.toList();
+    }
+
+    private final List<VpnTunnel> tunnels;
+    private final Map<String, TargetVpnGateway> gatewaysBySelfLink;
+    private final Map<String, List<ForwardingRule>> rulesByTarget;
+
+    private VpnInventory(@Nonnull List<VpnTunnel> tunnels, @Nonnull Map<String, TargetVpnGateway> gatewaysBySelfLink, @Nonnull Map<String, List<ForwardingRule>> rulesByTarget) {
+        this.tunnels = tunnels;
+        this.gatewaysBySelfLink = gatewaysBySelfLink;
+        this.rulesByTarget = rulesByTarget;
+    }
+
+    @Nonnull List<VpnTunnel> getTunnels() {
+        return tunnels;
+    }
+
+    /**
+     * @param tunnel a tunnel of the inventory
+     * @return the gateway the tunnel belongs to, or null if it is not in the inventory
+     */
+    @Nullable TargetVpnGateway getGateway(@Nonnull VpnTunnel tunnel) {
+        return gatewaysBySelfLink.get(tunnel.getTargetVpnGateway());
+    }
+
+    /**
+     * @param gateway a gateway of the inventory
+     * @return the forwarding rules that send traffic to the gateway
+     */
+    @Nonnull List<ForwardingRule> getForwardingRules(@Nonnull TargetVpnGateway gateway) {
+        List<ForwardingRule> rules = rulesByTarget.get(gateway.getSelfLink());
+
+        return (rules == null ? new ArrayList<ForwardingRule>() : rules);
+    }
+}
@@ -2,7 +2,6 @@ package org.dasein.cloud.google.network;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -13,7 +12,6 @@ import org.dasein.cloud.InternalException;
 import org.dasein.cloud.OperationNotSupportedException;
 import org.dasein.cloud.Requirement;
 import org.dasein.cloud.ResourceStatus;
-import org.dasein.cloud.dc.Region;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleMethod;
 import org.dasein.cloud.google.GoogleOperationType;
@@ -35,15 +33,12 @@ import org.dasein.cloud.util.APITrace;
 
 import com.google.api.services.compute.Compute;
 import com.google.api.services.compute.model.ForwardingRule;
-import com.google.api.services.compute.model.ForwardingRuleList;
 import com.google.api.services.compute.model.Network;
 import com.google.api.services.compute.model.Operation;
 import com.google.api.services.compute.model.Route;
 import com.google.api.services.compute.model.RouteList;
 import com.google.api.services.compute.model.TargetVpnGateway;
-import com.google.api.services.compute.model.TargetVpnGatewayList;
 import com.google.api.services.compute.model.VpnTunnel;
-import com.google.api.services.compute.model.VpnTunnelList;
 
 public class VpnSupport extends AbstractVpnSupport<Google> {
 
@@ -310,22 +305,12 @@ public class VpnSupport extends AbstractVpnSupport<Google> {
         try {
             Compute gce = getProvider().getGoogleCompute();
 
-            Collection<Region> regions = getProvider().getDataCenterServices().listRegions();
-            for (Region region : regions) {
-                TargetVpnGatewayList tunnels = gce.targetVpnGateways().list(getContext().getAccountNumber(), region.getName()).execute();
-
-                if ((null != tunnels) && (null != tunnels.getItems())) {
-                    List<TargetVpnGateway> targetVpnGatewayItems = tunnels.getItems();
-                    for (TargetVpnGateway targetVpnGateway : targetVpnGatewayItems) {
-                        if (providerTargetVpnGatewayId.equals(targetVpnGateway.getName())) {
-                            return toVpn(targetVpnGateway);
-                        }
-                    }
+            for (TargetVpnGateway targetVpnGateway : VpnInventory.listGateways(gce, getContext().getAccountNumber(), "name eq " + providerTargetVpnGatewayId)) {
+                if (providerTargetVpnGatewayId.equals(targetVpnGateway.getName())) {
+                    return toVpn(targetVpnGateway);
                 }
             }
             return null;
-        } catch (IOException e) {
-            throw new CloudException(e);
         } finally {
             APITrace.end();
         }
@@ -368,38 +353,26 @@ public class VpnSupport extends AbstractVpnSupport<Google> {
         try {
             Compute gce = getProvider().getGoogleCompute();
 
-            Collection<Region> regions = getProvider().getDataCenterServices().listRegions();
-            for (Region region : regions) {
-                VpnTunnelList tunnels;
-                try {
-                    tunnels = gce.vpnTunnels().list(getContext().getAccountNumber(), region.getName()).execute();
-                } catch ( IOException e ) {
-                    throw new CloudException(e);
-                }
+            for (VpnTunnel vpnTunnel : VpnInventory.listTunnels(gce, getContext().getAccountNumber())) {
+                if (toVpnId.equals(vpnTunnel.getTargetVpnGateway().replaceAll(".*/", ""))) {
+                    VpnConnection vpnConnection = new VpnConnection();
 
-                if ((null != tunnels) && (null != tunnels.getItems())) {
-                    for (VpnTunnel vpnTunnel : tunnels.getItems()) {
-                        if (toVpnId.equals(vpnTunnel.getTargetVpnGateway().replaceAll(".*/", ""))) {
-                            VpnConnection vpnConnection = new VpnConnection();
-
-                            if (vpnTunnel.getIkeVersion() == 1) {
-                                vpnConnection.setProtocol(VpnProtocol.IKE_V1);
-                            } else if (vpnTunnel.getIkeVersion() == 2) {
-                                vpnConnection.setProtocol(VpnProtocol.IKE_V2);
-                            }
-
-                            if (vpnTunnel.getStatus().equals("ESTABLISHED")) {
-                                vpnConnection.setCurrentState(VpnConnectionState.AVAILABLE);
-                            } else {
-                                vpnConnection.setCurrentState(VpnConnectionState.PENDING);
-                            }
-
-                            vpnConnection.setProviderGatewayId(vpnTunnel.getPeerIp());
-                            vpnConnection.setProviderVpnConnectionId(vpnTunnel.getName());
-                            vpnConnection.setProviderVpnId(vpn.getName());
-                            vpnConnections.add(vpnConnection);
-                        }
+                    if (vpnTunnel.getIkeVersion() == 1) {
+                        vpnConnection.setProtocol(VpnProtocol.IKE_V1);
+                    } else if (vpnTunnel.getIkeVersion() == 2) {
+                        vpnConnection.setProtocol(VpnProtocol.IKE_V2);
                     }
+
+                    if (vpnTunnel.getStatus().equals("ESTABLISHED")) {
+                        vpnConnection.setCurrentState(VpnConnectionState.AVAILABLE);
+                    } else {
+                        vpnConnection.setCurrentState(VpnConnectionState.PENDING);
+                    }
+
+                    vpnConnection.setProviderGatewayId(vpnTunnel.getPeerIp());
+                    vpnConnection.setProviderVpnConnectionId(vpnTunnel.getName());
+                    vpnConnection.setProviderVpnId(vpn.getName());
+                    vpnConnections.add(vpnConnection);
                 }
             }
         } finally {
@@ -416,24 +389,13 @@ public class VpnSupport extends AbstractVpnSupport<Google> {
         try {
             Compute gce = getProvider().getGoogleCompute();
 
-            Collection<Region> regions = getProvider().getDataCenterServices().listRegions();
-            for (Region region : regions) {
-                VpnTunnelList tunnels = null;
-                try {
-                    tunnels = gce.vpnTunnels().list(getContext().getAccountNumber(), region.getName()).execute();
-                } catch ( IOException e ) {
-                    throw new CloudException(e);
-                }
-                if ((null != tunnels) && (null != tunnels.getItems())) {
-                    for (VpnTunnel tunnel : tunnels.getItems()) {
-                        if (tunnel.getStatus().equals("ESTABLISHED")) {
-                            ResourceStatus status = new ResourceStatus(tunnel.getName(), VpnState.AVAILABLE);
-                            statusList.add(status);
-                        } else {
-                            ResourceStatus status = new ResourceStatus(tunnel.getName(), VpnState.PENDING);
-                            statusList.add(status);
-                        }
-                    }
+            for (VpnTunnel tunnel : VpnInventory.listTunnels(gce, getContext().getAccountNumber())) {
+                if (tunnel.getStatus().equals("ESTABLISHED")) {
+                    ResourceStatus status = new ResourceStatus(tunnel.getName(), VpnState.AVAILABLE);
+                    statusList.add(status);
+                } else {
+                    ResourceStatus status = new ResourceStatus(tunnel.getName(), VpnState.PENDING);
+                    statusList.add(status);
                 }
             }
         } finally {
@@ -449,41 +411,34 @@ public class VpnSupport extends AbstractVpnSupport<Google> {
         try {
             Compute gce = getProvider().getGoogleCompute();
 
-            Collection<Region> regions = getProvider().getDataCenterServices().listRegions();
-            for (Region region : regions) {
-                VpnTunnelList tunnels = gce.vpnTunnels().list(getContext().getAccountNumber(), region.getName()).execute();
-                if (null != tunnels.getItems()) {
-                    for (VpnTunnel tunnel : tunnels.getItems()) {
-                        Vpn vpn = new Vpn();
-                        vpn.setName(tunnel.getName());
-                        vpn.setDescription(tunnel.getDescription());
-                        vpn.setProviderVpnId(tunnel.getId().toString());
-                        if (1 == tunnel.getIkeVersion()) {
-                            vpn.setProtocol(VpnProtocol.IKE_V1);
-                        } else if (2 == tunnel.getIkeVersion()) {
-                            vpn.setProtocol(VpnProtocol.IKE_V2);
-                        }
-                        if (tunnel.getStatus().equals("ESTABLISHED")) {
-                            vpn.setCurrentState(VpnState.AVAILABLE);
-                        } else {
-                            vpn.setCurrentState(VpnState.PENDING); // TODO does it have more states?
-                        }
+            // three aggregated listings cover every region; tunnels are joined to gateways and rules in memory
+            VpnInventory inventory = VpnInventory.load(gce, getContext().getAccountNumber());
+            for (VpnTunnel tunnel : inventory.getTunnels()) {
+                Vpn vpn = new Vpn();
+                vpn.setName(tunnel.getName());
+                vpn.setDescription(tunnel.getDescription());
+                vpn.setProviderVpnId(tunnel.getId().toString());
+                if (1 == tunnel.getIkeVersion()) {
+                    vpn.setProtocol(VpnProtocol.IKE_V1);
+                } else if (2 == tunnel.getIkeVersion()) {
+                    vpn.setProtocol(VpnProtocol.IKE_V2);
+                }
+                if (tunnel.getStatus().equals("ESTABLISHED")) {
+                    vpn.setCurrentState(VpnState.AVAILABLE);
+                } else {
+                    vpn.setCurrentState(VpnState.PENDING); // TODO does it have more states?
+                }
 
-                        TargetVpnGateway gateway = gce.targetVpnGateways().get(getContext().getAccountNumber(), region.getName(), tunnel.getTargetVpnGateway().replaceAll(".*/", "")).execute();
-                        String[] networks = {gateway.getNetwork().replaceAll(".*/", "")};
-                        vpn.setProviderVlanIds(networks);
-
-                        ForwardingRuleList frl = gce.forwardingRules().list(getContext().getAccountNumber(), region.getName()).execute();
-                        if (null != frl.getItems()) {
-                            for (ForwardingRule fr : frl.getItems()) {
-                                if (fr.getTarget().equals(gateway.getSelfLink())) {
-                                    vpn.setProviderVpnIP(fr.getIPAddress());
-                                }
-                            }
-                        }
-                        vpns.add(vpn);
+                TargetVpnGateway gateway = inventory.getGateway(tunnel);
+                if (gateway != null) {
+                    String[] networks = {gateway.getNetwork().replaceAll(".*/", "")};
+                    vpn.setProviderVlanIds(networks);
+
+                    for (ForwardingRule fr : inventory.getForwardingRules(gateway)) {
+                        vpn.setProviderVpnIP(fr.getIPAddress());
                     }
                 }
+                vpns.add(vpn);
             }
         } catch ( Exception e ) {
             throw new CloudException(e);
@@ -0,0 +1,284 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.platform;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.google.Google;
+import org.dasein.cloud.google.PagedIterable;
+
+import com.google.api.services.sqladmin.SQLAdmin;
+import com.google.api.services.sqladmin.model.DatabaseInstance;
+import com.google.api.services.sqladmin.model.Operation;
+import com.google.api.services.sqladmin.model.OperationsListResponse;
+
+/**
+ * The creation times of the Cloud SQL instances of a project. Cloud SQL only reports when an instance was created
+ * through the end time of its CREATE operation, found at the far end of the instance's operation history, so each
+ * instance is looked up once and the result kept. Instances missing from the index are looked up concurrently, and
+ * entries for instances that no longer exist are dropped. When a directory is configured the index is also saved
+ * there, letting a fresh JVM list databases without reading any operation history.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class CreationIndex {
+    static private final Logger logger = Google.getLogger(CreationIndex.class);
+
+    /**
+     * Recorded for instances whose history no longer holds the CREATE operation, so they are not looked up again.
+     * Never recorded for an instance that is still being created, whose CREATE operation has no end time yet.
+     */
+    static private final long UNKNOWN = 0L;
+
+    static private final int MAX_LOOKUPS_IN_FLIGHT = 8;
+
+    static private final ConcurrentMap<String, CreationIndex> indexes = new ConcurrentHashMap<String, CreationIndex>();
+
+    /**
+     * @param project the project the instances belong to
+     * @param directory the directory the index is persisted in, or null to keep it in memory only
+     * @return the shared index of the project and directory, loaded from disk on first use if a saved copy exists
+     */
+    static @Nonnull CreationIndex getInstance(@Nonnull String project, @Nullable String directory) {
+        String key = project + "|" + (directory == null ? "" : directory);
+        CreationIndex index = indexes.get(key);
+
+        if( index == null ) {
+            // loaded before it is published, so the saved copy can never overwrite entries found by an update
+            CreationIndex created = new CreationIndex(directory == null ? null : new File(directory, "gce-sql-created-" + project + ".properties"));
+
+            index = indexes.putIfAbsent(key, created);
+            if( index == null ) {
+                index = created;
+            }
+        }
+        return index;
+    }
+
+    private final File file;
+    private final ConcurrentMap<String, Long> creationTimes = new ConcurrentHashMap<String, Long>();
+
+    private CreationIndex(@Nullable File file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * @param instanceName the name of a Cloud SQL instance
+     * @return the time the instance was created, or null if it is not known
+     */
+    @Nullable Long getCreationTimestamp(@Nonnull String instanceName) {
+        Long created = creationTimes.get(instanceName);
+
+        return (created == null || created == UNKNOWN ? null : created);
+    }
+
+    /**
+     * Brings the index in line with a complete listing of the project's instances, looking up the instances it
+     * does not know yet. An instance whose lookup fails, or that is still being created, is left out and tried
+     * again on the next update.
+     * @param sqlAdmin the Cloud SQL client
+     * @param project the project the instances belong to
+     * @param instances every instance of the project
+     */
+    synchronized void update(@Nonnull final SQLAdmin sqlAdmin, @Nonnull final String project, @Nonnull Collection<DatabaseInstance> instances) throws InternalException {
+        Set<String> names = new HashSet<String>();
+        List<String> missing = new ArrayList<String>();
+
+        for( DatabaseInstance instance : instances ) {
+            names.add(instance.getName());
+            if( !creationTimes.containsKey(instance.getName()) && !"PENDING_CREATE".equals(instance.getState()) ) {
+                missing.add(instance.getName());
+            }
+        }
+        boolean changed = creationTimes.keySet().retainAll(names);
+
+        if( !missing.isEmpty() ) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(missing.size(), MAX_LOOKUPS_IN_FLIGHT));
+            Map<String, Future<Long>> lookups = new LinkedHashMap<String, Future<Long>>();
+
+            try {
+                for( final String name : missing ) {
+                    lookups.put(name, executor.submit(new Callable<Long>() {
+                        @Override
+                        public Long call() throws CloudException, InternalException {
+                            return lookup(sqlAdmin, project, name);
+                        }
+                    }));
+                }
+                for( Map.Entry<String, Future<Long>> lookup : lookups.entrySet() ) {
+                    try {
+                        Long created = lookup.getValue().get();
+
+                        if( created != null ) {
+                            creationTimes.put(lookup.getKey(), created);
+                            changed = true;
+                        }
+                    }
+                    catch( ExecutionException e ) {
+                        logger.warn("Unable to find the creation time of " + lookup.getKey() + ": " + e.getCause().getMessage());
+                    }
+                }
+            }
+            catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new InternalException(e);
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+        if( changed ) {
+            save();
+        }
+    }
+
+    /**
+     * Forgets an instance, so that a later instance reusing its name is looked up afresh.
+     * @param instanceName the name of the deleted instance
+     */
+    void remove(@Nonnull String instanceName) {
+        if( creationTimes.remove(instanceName) != null ) {
+            synchronized( this ) {
+                save();
+            }
+        }
+    }
+
+    /**
+     * @return the end time of the CREATE operation, {@link #UNKNOWN} if the history holds none, or null if it has not finished yet
+     */
+    private @Nullable Long lookup(@Nonnull final SQLAdmin sqlAdmin, @Nonnull final String project, @Nonnull final String instanceName) throws CloudException, InternalException {
+        List<Operation> operations = new PagedIterable<OperationsListResponse, Operation>("listing operations of " + instanceName) {
+            @Override
+            protected OperationsListResponse fetch(String pageToken) throws IOException {
+                return sqlAdmin.operations().list(project, instanceName).setFields("items(operationType,status,endTime),nextPageToken").setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull OperationsListResponse page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<Operation> toItems(@Nonnull OperationsListResponse page) {
+                if( page.getItems() == null ) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+
+        for( Operation operation : operations ) {
+            if( "CREATE".equals(operation.getOperationType()) ) {
+                if( operation.getEndTime() == null || !"DONE".equals(operation.getStatus()) ) {
+                    return null;
+                }
+                return operation.getEndTime().getValue();
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private void load() {
+        if( file == null || !file.exists() ) {
+            return;
+        }
+        Properties saved = new Properties();
+
+        try {
+            InputStream input = new FileInputStream(file);
+
+            try {
+                saved.load(input);
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to read creation index " + file + ": " + e.getMessage());
+            return;
+        }
+        for( String name : saved.stringPropertyNames() ) {
+            try {
+                creationTimes.put(name, Long.parseLong(saved.getProperty(name)));
+            }
+            catch( NumberFormatException e ) {
+                logger.warn("Ignoring invalid creation time for " + name + " in " + file);
+            }
+        }
+    }
+
+    private void save() {
+        if( file == null ) {
+            return;
+        }
+        Properties saved = new Properties();
+
+        for( Map.Entry<String, Long> entry : creationTimes.entrySet() ) {
+            saved.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        try {
+            File tmp = new File(file.getPath() + ".tmp");
+            OutputStream output = new FileOutputStream(tmp);
+
+            try {
+                saved.store(output, "Cloud SQL instance creation times");
+            }
+            finally {
+                output.close();
+            }
+            if( !tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file)) ) {
+                logger.warn("Unable to replace creation index " + file);
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to save creation index " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -19,10 +19,7 @@
 
 package org.dasein.cloud.google.platform;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -30,10 +27,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 import javax.annotation.Nonnull;
 
@@ -49,6 +44,8 @@ import org.dasein.cloud.TimeWindow;
 import org.dasein.cloud.google.Google;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.GoogleMethod;
+import org.dasein.cloud.google.FieldMask;
+import org.dasein.cloud.google.PagedIterable;
 import org.dasein.cloud.google.capabilities.GCERelationalDatabaseCapabilities;
 import org.dasein.cloud.identity.ServiceAction;
 import org.dasein.cloud.platform.AbstractRelationalDatabaseSupport;
@@ -67,11 +64,8 @@ import org.dasein.cloud.util.APITrace;
 import org.dasein.cloud.util.Cache;
 import org.dasein.cloud.util.CacheLevel;
 import org.dasein.util.uom.time.Day;
-import org.dasein.util.uom.time.Hour;
 import org.dasein.util.uom.time.Second;
 import org.dasein.util.uom.time.TimePeriod;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.services.sqladmin.SQLAdmin;
@@ -90,7 +84,6 @@ import com.google.api.services.sqladmin.model.IpConfiguration;
 import com.google.api.services.sqladmin.model.LocationPreference;
 import com.google.api.services.sqladmin.model.Operation;
 import com.google.api.services.sqladmin.model.OperationError;
-import com.google.api.services.sqladmin.model.OperationsListResponse;
 import com.google.api.services.sqladmin.model.RestoreBackupContext;
 import com.google.api.services.sqladmin.model.Settings;
 import com.google.api.services.sqladmin.model.Tier;
@@ -103,13 +96,11 @@ import com.google.api.services.sqladmin.model.User;
 public class RDS extends AbstractRelationalDatabaseSupport<Google> {
     static private final Logger logger = Logger.getLogger(RDS.class);
 
-    private Cache<JSONObject> jsonPriceList = null;
     private Cache<DatabaseInstance> listDatabasesInstanceCache = null;
     private Cache<Database> listDatabasesCache = null;
     private Cache<DatabaseEngine> databaseEngines = null;
 
     private Cache<Tier> tiersList = null;
-    final static private String jsonPriceUrl = "http://cloudpricingcalculator.appspot.com/static/data/pricelist.json";
     static private Long gigabyte = 1073741824L;
     static private Long megabyte = 1048576L;
     private Google provider;
@@ -117,7 +108,6 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
     RDS(Google provider) {
         super(provider);
         this.provider = provider;
-        jsonPriceList = Cache.getInstance(provider, "jsonPriceList", JSONObject.class, CacheLevel.CLOUD, new TimePeriod<Hour>(1, TimePeriod.HOUR));
         databaseEngines = Cache.getInstance(provider, "databaseEngineList", DatabaseEngine.class, CacheLevel.CLOUD, new TimePeriod<Day>(1, TimePeriod.DAY));
         tiersList = Cache.getInstance(provider, "tierList", Tier.class, CacheLevel.CLOUD, new TimePeriod<Day>(1, TimePeriod.DAY));
         listDatabasesInstanceCache = Cache.getInstance(provider, "listDatabasesInstanceCache", DatabaseInstance.class, CacheLevel.CLOUD_ACCOUNT, new TimePeriod<Second>(60, TimePeriod.SECOND)); // disable for testing
@@ -132,6 +122,31 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
             throw new CloudException(e);
     }
 
+    /**
+     * Pages through every Cloud SQL instance of the project.
+     */
+    private @Nonnull List<DatabaseInstance> listDatabaseInstances(@Nonnull final SQLAdmin sqlAdmin, @Nonnull final String project) throws CloudException, InternalException {
+        return new PagedIterable<InstancesListResponse, DatabaseInstance>("listing database instances") {
+            @Override
+            protected InstancesListResponse fetch(String pageToken) throws IOException {
+                return sqlAdmin.instances().list(project).setFields(FieldMask.DATABASE_INSTANCE.forList(provider)).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull InstancesListResponse page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<DatabaseInstance> toItems(@Nonnull InstancesListResponse page) {
+                if (page.getItems() == null) {
+                    return Collections.emptyList();
+                }
+                return page.getItems();
+            }
+        }.toList();
+    }
+
     @Override
     public String[] mapServiceAction(ServiceAction action) {
         // IGNORE - Drew
@@ -590,24 +605,6 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
         return versions.keySet();
     }
 
-    private static String readUrl(String urlString) throws Exception {
-        BufferedReader reader = null;
-        try {
-            URL url = new URL(urlString);
-            reader = new BufferedReader(new InputStreamReader(url.openStream()));
-            StringBuffer buffer = new StringBuffer();
-            int read;
-            char[] chars = new char[1024];
-            while ((read = reader.read(chars)) != -1)
-                buffer.append(chars, 0, read); 
-
-            return buffer.toString();
-        } finally {
-            if (reader != null)
-                reader.close();
-        }
-    }
-
     @Override
     public @Nonnull Iterable<DatabaseProduct> listDatabaseProducts(@Nonnull DatabaseEngine forEngine) throws CloudException, InternalException {
         ArrayList<DatabaseProduct> products = new ArrayList<DatabaseProduct>();
@@ -626,79 +623,14 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
             return products;
 
         ProviderContext ctx = provider.getContext();
-        Collection<JSONObject> cachedJsonPriceList = (Collection<JSONObject>)jsonPriceList.get(ctx);
+        SqlPriceCatalog.Rates rates = SqlPriceCatalog.getInstance().getRates(ctx.getRegionId());
 
-        JSONObject json = null;
-        if (cachedJsonPriceList != null)
-            json = cachedJsonPriceList.iterator().next();
-        else {
-            String jsonString = null;
-            try {
-                jsonString = readUrl(jsonPriceUrl);
-                jsonString = jsonString.replaceFirst("CP-APP-ENGINE-CLOUD-STORAGE", "CP-APP-ENGINE-CLOUD-STORAGE-DUP"); // fix a dup error
-                jsonString = jsonString.replaceFirst("CP-APP-ENGINE-MEMCACHE", "CP-APP-ENGINE-MEMCACHE-DUP"); // fix a dup error
-                json = new JSONObject(jsonString);
-            } catch ( JSONException e ) {
-                throw new InternalException("Problem obtaining pricing from " + jsonPriceUrl + " : " + e);
-            } catch ( Exception e ) {
-                throw new InternalException("Problem obtaining pricing from " + jsonPriceUrl + " : " + e);
-            }
-            Collection<JSONObject> jsonCachList = new ArrayList<JSONObject>();
-            jsonCachList.add(json);
-            jsonPriceList.put(ctx, jsonCachList);
-        }
-
-        Map<String, Float> hourly = new HashMap<String, Float>();
-        Map<String, Float> daily = new HashMap<String, Float>();
-
-        Float ioRate = null;
-        Float storageRate = null;
-        //Float trafficRate = null;
-
-        try {
-            //String version = (String) json.get("version");
-            //String updated = (String) json.get("updated");
-            //Double sustained_use_base = (Double) gcp_price_list.get("sustained_use_base");
-            JSONObject gcp_price_list = (JSONObject) json.get("gcp_price_list");
-            Iterator<?> keys = gcp_price_list.keys();
-            while (keys.hasNext()){
-                String k = (String) keys.next();
-                if (k.contains("CLOUDSQL")) {
-                    String[] components = k.split("-");
-                    JSONObject val = (JSONObject) gcp_price_list.get(k);
-                    Float price = null;
-
-                    String regionId = ctx.getRegionId();
-                    price = new Float((Double) val.get("us"));
-                    try {
-                        if (regionId.startsWith("europe"))
-                            price = new Float((Double) val.get("eu"));
-                        else if (regionId.startsWith("asia"))
-                            price = new Float((Double) val.get("apac"));
-                    } catch (JSONException e) {
-                        // ignore and just use US price.
-                    }
-                    if (components[2].equals("PERUSE"))
-                        hourly.put(components[3], price);
-                    else if (components[2].equals("PACKAGE"))
-                        daily.put(components[3], price);
-                    else if (components[2].equals("IO"))
-                        ioRate = price;         // CP-CLOUDSQL-IO - us = 0.1 per million I/O's
-                    else if (components[2].equals("STORAGE"))
-                        storageRate = price;    // CP-CLOUDSQL-STORAGE - us = 0.24 per month per GB
-                    //else if (components[2].equals("TRAFFIC"))
-                    //    trafficRate = price;    // CP-CLOUDSQL-TRAFFIC - us = 0.12 per GB (outbound only)
-                }
-            }
-        } catch ( Exception e ) {
-            throw new InternalException("Problem obtaining pricing from " + jsonPriceUrl);
+        if (rates == null) {
+            APITrace.end();
+            throw new InternalException("No Cloud SQL prices are available");
         }
-
         SQLAdmin sqlAdmin = provider.getGoogleSQLAdmin();
 
-        Map<String, Float> hourlyRate = Collections.unmodifiableMap(hourly);
-        Map<String, Float> dailyRate = Collections.unmodifiableMap(daily);
-
         Collection<Tier> tierList = (Collection<Tier>)tiersList.get(ctx);
         List<Tier> tiers = null;
         if (tierList != null)
@@ -724,9 +656,9 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
                 product.setEngine(forEngine);
                 product.setStorageInGigabytes(sizeInGB);
                 product.setCurrency("USD");
-                product.setStandardHourlyRate(hourlyRate.get(t.getTier()));
-                product.setStandardIoRate(ioRate);
-                product.setStandardStorageRate(storageRate);
+                product.setStandardHourlyRate(rates.getHourlyRate(t.getTier()));
+                product.setStandardIoRate(rates.getIoRate());
+                product.setStandardStorageRate(rates.getStorageRate());
                 products.add(product);
 
                 // Daily rate
@@ -734,9 +666,11 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
                 product.setEngine(forEngine);
                 product.setStorageInGigabytes(sizeInGB);
                 product.setCurrency("USD");
-                product.setStandardHourlyRate(dailyRate.get(t.getTier()) / 24.0f);
-                product.setStandardIoRate(ioRate);
-                product.setStandardStorageRate(storageRate);
+                Float dailyRate = rates.getDailyRate(t.getTier());
+                if (dailyRate != null)
+                    product.setStandardHourlyRate(dailyRate / 24.0f);
+                product.setStandardIoRate(rates.getIoRate());
+                product.setStandardStorageRate(rates.getStorageRate());
                 product.setHighAvailability(true);       // Always On
                 products.add(product);
             }
@@ -768,15 +702,7 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
         List<String> dbAccess = new ArrayList<String>();
         ProviderContext ctx = provider.getContext();
         SQLAdmin sqlAdmin = provider.getGoogleSQLAdmin();
-        Collection<DatabaseInstance> databaseInstances = null;
-
-        try {
-            InstancesListResponse databases = sqlAdmin.instances().list(ctx.getAccountNumber()).execute();
-            databaseInstances = databases.getItems();
-
-        } catch (Exception e) {
-            handleGoogleException(e);
-        }
+        Collection<DatabaseInstance> databaseInstances = listDatabaseInstances(sqlAdmin, ctx.getAccountNumber());
 
         for (DatabaseInstance db : databaseInstances) {
             List<AclEntry> networks = db.getSettings().getIpConfiguration().getAuthorizedNetworks();
@@ -810,13 +736,8 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
         Collection<DatabaseInstance> databaseInstances = (Collection<DatabaseInstance>)listDatabasesInstanceCache.get(ctx);
 
         if (null == databaseInstances) {
-            try {
-                InstancesListResponse databases = sqlAdmin.instances().list(ctx.getAccountNumber()).execute();
-                databaseInstances = databases.getItems();
-                listDatabasesInstanceCache.put(ctx, databaseInstances);
-            } catch (Exception e) {
-                handleGoogleException(e);
-            }
+            databaseInstances = listDatabaseInstances(sqlAdmin, ctx.getAccountNumber());
+            listDatabasesInstanceCache.put(ctx, databaseInstances);
         }
 
         for (DatabaseInstance instance : databaseInstances) {
@@ -837,16 +758,13 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
         if (null == list) {
             Collection<DatabaseInstance> databaseInstances = (Collection<DatabaseInstance>)listDatabasesInstanceCache.get(ctx);
             if (null == databaseInstances) {
-                try {
-                    InstancesListResponse databases = sqlAdmin.instances().list(ctx.getAccountNumber()).execute();
-                    if (null != databases)
-                        databaseInstances = databases.getItems();
-                    listDatabasesInstanceCache.put(ctx, databaseInstances);
-                } catch (Exception e) {
-                    handleGoogleException(e);
-                }
+                databaseInstances = listDatabaseInstances(sqlAdmin, ctx.getAccountNumber());
+                listDatabasesInstanceCache.put(ctx, databaseInstances);
             }
 
+            CreationIndex creationIndex = CreationIndex.getInstance(ctx.getAccountNumber(), provider.getIndexDirectory());
+            creationIndex.update(sqlAdmin, ctx.getAccountNumber(), databaseInstances);
+
             try {
                 list = new ArrayList<Database>();
                 if (null != databaseInstances) {
@@ -864,10 +782,9 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
                         }
                         database.setConfiguration("unknown-1");
 
-                        OperationsListResponse operations = sqlAdmin.operations().list(d.getProject(), d.getName()).execute(); // .getInstance()
-                        for (Operation operation: operations.getItems())
-                            if ((operation.getOperationType().equals("CREATE")) && (operation.getEndTime() != null))
-                                database.setCreationTimestamp(operation.getEndTime().getValue());
+                        Long created = creationIndex.getCreationTimestamp(d.getName());
+                        if (null != created)
+                            database.setCreationTimestamp(created);
 
                         String googleDBState = d.getState();
                         if (googleDBState.equals("RUNNABLE")) {
@@ -977,6 +894,7 @@ public class RDS extends AbstractRelationalDatabaseSupport<Google> {
         } catch (Exception e) {
             throw new CloudException(e);
         }
+        CreationIndex.getInstance(ctx.getAccountNumber(), provider.getIndexDirectory()).remove(providerDatabaseId);
 
         Collection<Database> list = (Collection<Database>)listDatabasesCache.get(ctx);
         if (null != list) {
@@ -0,0 +1,311 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.platform;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.log4j.Logger;
+import org.dasein.cloud.google.Google;
+
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.JsonToken;
+import com.google.api.client.json.jackson2.JacksonFactory;
+
+/**
+ * Cloud SQL prices indexed by pricing region and tier. The catalog starts from a snapshot bundled with the
+ * library, so prices are available without network access, and is replaced in the background by the live
+ * price list once an hour. Only the CLOUDSQL entries are read from the price list; everything else in the
+ * document is skipped by the streaming parser without being built into objects.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+final class SqlPriceCatalog {
+    static private final Logger logger = Google.getLogger(SqlPriceCatalog.class);
+
+    static private final String PRICE_LIST_URL = "https://cloudpricingcalculator.appspot.com/static/data/pricelist.json";
+    static private final String SNAPSHOT = "cloudsql-prices.json";
+    static private final String DEFAULT_PRICING_REGION = "us";
+    static private final String[] PRICING_REGIONS = { "us", "eu", "apac" };
+    static private final long REFRESH_INTERVAL = 60L * 60L * 1000L;
+    static private final int CONNECT_TIMEOUT = 10000;
+    static private final int READ_TIMEOUT = 30000;
+
+    static private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(@Nonnull Runnable r) {
+            Thread t = new Thread(r, "google-sql-price-refresh");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    static private volatile SqlPriceCatalog instance;
+
+    /**
+     * @return the current catalog, the bundled snapshot until the live price list has been read
+     */
+    static @Nonnull SqlPriceCatalog getInstance() {
+        if( instance == null ) {
+            synchronized( SqlPriceCatalog.class ) {
+                if( instance == null ) {
+                    instance = loadSnapshot();
+                    refresher.scheduleWithFixedDelay(new Runnable() {
+                        @Override
+                        public void run() {
+                            refresh();
+                        }
+                    }, 0L, REFRESH_INTERVAL, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    static private @Nonnull SqlPriceCatalog loadSnapshot() {
+        InputStream input = SqlPriceCatalog.class.getResourceAsStream(SNAPSHOT);
+
+        if( input == null ) {
+            logger.warn("No bundled Cloud SQL price snapshot found");
+            return new SqlPriceCatalog(Collections.<String, Rates>emptyMap());
+        }
+        try {
+            try {
+                return parse(input);
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to read bundled Cloud SQL price snapshot: " + e.getMessage());
+            return new SqlPriceCatalog(Collections.<String, Rates>emptyMap());
+        }
+    }
+
+    static private void refresh() {
+        try {
+            URLConnection connection = new URL(PRICE_LIST_URL).openConnection();
+
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+            InputStream input = connection.getInputStream();
+
+            try {
+                SqlPriceCatalog catalog = parse(input);
+
+                if( catalog.rates.isEmpty() ) {
+                    logger.warn("No Cloud SQL prices found in " + PRICE_LIST_URL + ", keeping the current catalog");
+                }
+                else {
+                    instance = catalog;
+                }
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to refresh Cloud SQL prices from " + PRICE_LIST_URL + ": " + e.getMessage());
+        }
+        catch( RuntimeException e ) {
+            // keep the scheduled refresh alive whatever the document looks like
+            logger.warn("Unable to parse Cloud SQL prices from " + PRICE_LIST_URL + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the CLOUDSQL entries of a price list document, such as "CP-CLOUDSQL-PERUSE-D1": { "us": 0.1, ... }.
+     */
+    static private @Nonnull SqlPriceCatalog parse(@Nonnull InputStream input) throws IOException {
+        Map<String, Rates> rates = new HashMap<String, Rates>();
+        JsonParser parser = JacksonFactory.getDefaultInstance().createJsonParser(input);
+
+        try {
+            if( parser.nextToken() != JsonToken.START_OBJECT ) {
+                throw new IOException("The price list is not a JSON object");
+            }
+            while( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                String field = parser.getCurrentName();
+
+                parser.nextToken();
+                if( !"gcp_price_list".equals(field) ) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                    String sku = parser.getCurrentName();
+
+                    parser.nextToken();
+                    if( !sku.contains("CLOUDSQL") || parser.getCurrentToken() != JsonToken.START_OBJECT ) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                        String pricingRegion = parser.getCurrentName();
+                        JsonToken value = parser.nextToken();
+
+                        if( value == JsonToken.VALUE_NUMBER_FLOAT || value == JsonToken.VALUE_NUMBER_INT ) {
+                            Rates regionRates = rates.get(pricingRegion);
+
+                            if( regionRates == null ) {
+                                regionRates = new Rates();
+                                rates.put(pricingRegion, regionRates);
+                            }
+                            regionRates.add(sku, parser.getFloatValue());
+                        }
+                        else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+        finally {
+            parser.close();
+        }
+        Rates defaults = rates.get(DEFAULT_PRICING_REGION);
+
+        if( defaults != null ) {
+            for( String pricingRegion : PRICING_REGIONS ) {
+                Rates regionRates = rates.get(pricingRegion);
+
+                if( regionRates == null ) {
+                    rates.put(pricingRegion, defaults);
+                }
+                else if( regionRates != defaults ) {
+                    regionRates.fillFrom(defaults);
+                }
+            }
+        }
+        return new SqlPriceCatalog(rates);
+    }
+
+    private final Map<String, Rates> rates;
+
+    private SqlPriceCatalog(@Nonnull Map<String, Rates> rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * @param regionId a Cloud SQL or Compute region, such as europe-west1
+     * @return the prices that apply in the region, or null if the catalog holds no prices
+     */
+    @Nullable Rates getRates(@Nullable String regionId) {
+        String pricingRegion = DEFAULT_PRICING_REGION;
+
+        if( regionId != null ) {
+            if( regionId.startsWith("europe") ) {
+                pricingRegion = "eu";
+            }
+            else if( regionId.startsWith("asia") ) {
+                pricingRegion = "apac";
+            }
+        }
+        Rates regionRates = rates.get(pricingRegion);
+
+        return (regionRates == null ? rates.get(DEFAULT_PRICING_REGION) : regionRates);
+    }
+
+    /**
+     * The Cloud SQL prices of one pricing region. Never modified once the catalog holding it is published.
+     */
+    static final class Rates {
+        private final Map<String, Float> hourly = new HashMap<String, Float>();
+        private final Map<String, Float> daily = new HashMap<String, Float>();
+        private Float ioRate;
+        private Float storageRate;
+
+        private void add(@Nonnull String sku, float price) {
+            String[] components = sku.split("-");
+
+            if( components.length < 3 ) {
+                return;
+            }
+            if( components[2].equals("PERUSE") && components.length > 3 ) {
+                hourly.put(components[3], price);
+            }
+            else if( components[2].equals("PACKAGE") && components.length > 3 ) {
+                daily.put(components[3], price);
+            }
+            else if( components[2].equals("IO") ) {
+                ioRate = price;         // CP-CLOUDSQL-IO - per million I/O's
+            }
+            else if( components[2].equals("STORAGE") ) {
+                storageRate = price;    // CP-CLOUDSQL-STORAGE - per month per GB
+            }
+        }
+
+        private void fillFrom(@Nonnull Rates defaults) {
+            for( Map.Entry<String, Float> entry : defaults.hourly.entrySet() ) {
+                if( !hourly.containsKey(entry.getKey()) ) {
+                    hourly.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for( Map.Entry<String, Float> entry : defaults.daily.entrySet() ) {
+                if( !daily.containsKey(entry.getKey()) ) {
+                    daily.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if( ioRate == null ) {
+                ioRate = defaults.ioRate;
+            }
+            if( storageRate == null ) {
+                storageRate = defaults.storageRate;
+            }
+        }
+
+        /**
+         * @param tier a Cloud SQL tier, such as D1
+         * @return the per use price per hour of the tier, or null if it has none
+         */
+        @Nullable Float getHourlyRate(@Nonnull String tier) {
+            return hourly.get(tier);
+        }
+
+        /**
+         * @param tier a Cloud SQL tier, such as D1
+         * @return the package price per day of the tier, or null if it has none
+         */
+        @Nullable Float getDailyRate(@Nonnull String tier) {
+            return daily.get(tier);
+        }
+
+        @Nullable Float getIoRate() {
+            return ioRate;
+        }
+
+        @Nullable Float getStorageRate() {
+            return storageRate;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.storage;
+
+import com.google.api.services.storage.Storage;
+import com.google.api.services.storage.model.RewriteResponse;
+import com.google.api.services.storage.model.StorageObject;
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.google.Google;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Copies objects inside Cloud Storage with objects().rewrite, so the data never passes through this process.
+ * Large objects, or copies across locations and storage classes, take several rewrite calls; each call continues
+ * from the rewrite token returned by the previous one. Many copies can be run at once with a bounded number in
+ * flight, failures being collected and reported together at the end.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+class BulkCopy {
+    static private final Logger logger = Google.getLogger(BulkCopy.class);
+
+    /**
+     * Copies a single object on the server, following rewrite tokens until the copy is done.
+     * @param storage the storage client
+     * @param fromBucket the bucket of the source object
+     * @param fromName the name of the source object
+     * @param toBucket the bucket of the copy
+     * @param toName the name of the copy
+     * @return the copy
+     * @throws IOException a rewrite call failed
+     */
+    static @Nonnull StorageObject rewrite(@Nonnull Storage storage, @Nonnull String fromBucket, @Nonnull String fromName, @Nonnull String toBucket, @Nonnull String toName) throws IOException {
+        String token = null;
+
+        while( true ) {
+            Storage.Objects.Rewrite rewrite = storage.objects().rewrite(fromBucket, fromName, toBucket, toName, null);
+
+            if( token != null ) {
+                rewrite.setRewriteToken(token);
+            }
+            RewriteResponse response = rewrite.execute();
+
+            if( Boolean.TRUE.equals(response.getDone()) ) {
+                return response.getResource();
+            }
+            token = response.getRewriteToken();
+            if( logger.isDebugEnabled() ) {
+                logger.debug("Rewrote " + response.getTotalBytesRewritten() + " of " + response.getObjectSize() + " bytes of " + fromBucket + "/" + fromName);
+            }
+        }
+    }
+
+    private final Storage storage;
+    private final String fromBucket;
+    private final String toBucket;
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final Semaphore inFlight;
+    private final Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<String, String>());
+
+    /**
+     * @param storage the storage client
+     * @param fromBucket the bucket objects are copied from
+     * @param toBucket the bucket objects are copied to
+     * @param parallelism the maximum number of copies in flight at once
+     */
+    BulkCopy(@Nonnull Storage storage, @Nonnull String fromBucket, @Nonnull String toBucket, int parallelism) {
+        this.storage = storage;
+        this.fromBucket = fromBucket;
+        this.toBucket = toBucket;
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism);
+        this.inFlight = new Semaphore(parallelism);
+    }
+
+    /**
+     * Starts copying an object, blocking while the maximum number of copies is already in flight.
+     * @param fromName the name of the source object
+     * @param toName the name of the copy
+     */
+    void add(@Nonnull final String fromName, @Nonnull final String toName) throws InternalException {
+        try {
+            inFlight.acquire();
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            throw new InternalException(e);
+        }
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    rewrite(storage, fromBucket, fromName, toBucket, toName);
+                }
+                catch( IOException e ) {
+                    logger.warn("Unable to copy " + fromBucket + "/" + fromName + " to " + toBucket + "/" + toName + ": " + e.getMessage());
+                    failures.put(fromName, e.getMessage());
+                }
+                finally {
+                    inFlight.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits for every copy to finish.
+     * @throws CloudException one or more objects could not be copied
+     */
+    void finish() throws CloudException, InternalException {
+        try {
+            inFlight.acquire(parallelism);
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        finally {
+            workers.shutdownNow();
+        }
+        if( !failures.isEmpty() ) {
+            StringBuilder message = new StringBuilder("Failed to copy " + failures.size() + " object(s) from " + fromBucket + " to " + toBucket + ":");
+            int shown = 0;
+
+            synchronized( failures ) {
+                for( Map.Entry<String, String> failure : failures.entrySet() ) {
+                    if( shown++ == 10 ) {
+                        message.append(" ...");
+                        break;
+                    }
+                    message.append(" ").append(failure.getKey()).append(" (").append(failure.getValue()).append(")");
+                }
+            }
+            throw new CloudException(message.toString());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.storage;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.storage.Storage;
+import org.apache.log4j.Logger;
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.InternalException;
+import org.dasein.cloud.google.Google;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Deletes many objects of a bucket through Google batch requests of up to 100 calls each, with a bounded number
+ * of batches in flight. Names are fed in as the listing streams, so the whole bucket never has to be held in
+ * memory. Deletes that fail with a transient error are retried in a smaller follow-up batch; permanent failures are collected
+ * and reported together once every object has been tried.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+class BulkDelete {
+    static private final Logger logger = Google.getLogger(BulkDelete.class);
+
+    static final int MAX_BATCH_SIZE = 100;
+    static private final int MAX_ATTEMPTS = 3;
+    static private final long RETRY_DELAY = 1000L;
+
+    private final Storage storage;
+    private final String bucket;
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final Semaphore inFlight;
+    private final Map<String, String> failures = Collections.synchronizedMap(new LinkedHashMap<String, String>());
+    private List<String> pending = new ArrayList<String>();
+
+    /**
+     * @param storage the storage client
+     * @param bucket the bucket to delete from
+     * @param parallelism the maximum number of batches in flight at once
+     */
+    BulkDelete(@Nonnull Storage storage, @Nonnull String bucket, int parallelism) {
+        this.storage = storage;
+        this.bucket = bucket;
+        this.parallelism = parallelism;
+        this.workers = Executors.newFixedThreadPool(parallelism);
+        this.inFlight = new Semaphore(parallelism);
+    }
+
+    /**
+     * Queues an object for deletion, sending a batch whenever 100 names have been queued. Blocks while the
+     * maximum number of batches is already in flight.
+     * @param objectName the object to delete
+     */
+    void add(@Nonnull String objectName) throws InternalException {
+        pending.add(objectName);
+        if( pending.size() >= MAX_BATCH_SIZE ) {
+            try {
+                submit(pending);
+            }
+            catch( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                workers.shutdownNow();
+                throw new InternalException(e);
+            }
+            pending = new ArrayList<String>();
+        }
+    }
+
+    /**
+     * Sends the remaining names and waits for every batch, including retries, to finish.
+     * @throws CloudException one or more objects could not be deleted
+     */
+    void finish() throws CloudException, InternalException {
+        try {
+            if( !pending.isEmpty() ) {
+                submit(pending);
+                pending = new ArrayList<String>();
+            }
+            // every permit back means no batch is still running
+            inFlight.acquire(parallelism);
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        finally {
+            workers.shutdownNow();
+        }
+        if( !failures.isEmpty() ) {
+            StringBuilder message = new StringBuilder("Failed to delete " + failures.size() + " object(s) from " + bucket + ":");
+            int shown = 0;
+
+            synchronized( failures ) {
+                for( Map.Entry<String, String> failure : failures.entrySet() ) {
+                    if( shown++ == 10 ) {
+                        message.append(" ...");
+                        break;
+                    }
+                    message.append(" ").append(failure.getKey()).append(" (").append(failure.getValue()).append(")");
+                }
+            }
+            throw new CloudException(message.toString());
+        }
+    }
+
+    private void submit(@Nonnull final List<String> names) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<String> batch = names;
+
+                try {
+                    for( int attempt = 1; !batch.isEmpty(); attempt++ ) {
+                        if( attempt > 1 ) {
+                            Thread.sleep(RETRY_DELAY * (attempt - 1));
+                        }
+                        List<String> retry = new ArrayList<String>();
+
+                        send(batch, attempt, retry);
+                        batch = retry;
+                    }
+                }
+                catch( InterruptedException e ) {
+                    for( String name : batch ) {
+                        failures.put(name, "interrupted");
+                    }
+                }
+                finally {
+                    inFlight.release();
+                }
+            }
+        });
+    }
+
+    private void send(@Nonnull List<String> names, final int attempt, @Nonnull final List<String> retry) {
+        try {
+            BatchRequest batch = storage.batch();
+
+            for( final String name : names ) {
+                storage.objects().delete(bucket, name).queue(batch, new JsonBatchCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result, HttpHeaders responseHeaders) {
+                    }
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                        int code = error.getCode();
+
+                        if( code == 404 ) {
+                            return; // already gone
+                        }
+                        if( (code == 429 || code >= 500) && attempt < MAX_ATTEMPTS ) {
+                            retry.add(name);
+                        }
+                        else {
+                            logger.warn("Unable to delete " + bucket + "/" + name + ": " + error.getMessage());
+                            failures.put(name, code + " " + error.getMessage());
+                        }
+                    }
+                });
+            }
+            batch.execute();
+        }
+        catch( IOException e ) {
+            // the whole batch failed to reach the server
+            logger.warn("Batch delete from " + bucket + " failed: " + e.getMessage());
+            for( String name : names ) {
+                if( attempt < MAX_ATTEMPTS ) {
+                    retry.add(name);
+                }
+                else {
+                    failures.put(name, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -20,15 +20,20 @@
 package org.dasein.cloud.google.storage;
 
 import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.AbstractInputStreamContent;
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.FileContent;
 import com.google.api.client.http.InputStreamContent;
 import com.google.api.services.storage.model.Bucket;
 import com.google.api.services.storage.model.BucketAccessControl;
 import com.google.api.services.storage.model.BucketAccessControls;
 import com.google.api.services.storage.model.Buckets;
+import com.google.api.services.storage.model.ComposeRequest;
 import com.google.api.services.storage.model.Objects;
 import com.google.api.services.storage.model.ObjectAccessControl;
 import com.google.api.services.storage.model.ObjectAccessControls;
 import com.google.api.services.storage.model.StorageObject;
+import com.google.common.io.BaseEncoding;
 import org.apache.log4j.Logger;
 import org.dasein.cloud.Capabilities;
 import org.dasein.cloud.CloudErrorType;
@@ -36,8 +41,11 @@ import org.dasein.cloud.CloudException;
 import org.dasein.cloud.InternalException;
 import org.dasein.cloud.OperationNotSupportedException;
 import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.google.FieldMask;
 import org.dasein.cloud.google.GoogleException;
 import org.dasein.cloud.google.Google;
+import org.dasein.cloud.google.PagedIterable;
+import org.dasein.cloud.google.PagedListingException;
 import org.dasein.cloud.google.capabilities.GCEBlobStoreCapabilities;
 import org.dasein.cloud.identity.ServiceAction;
 import org.dasein.cloud.storage.AbstractBlobStoreSupport;
@@ -51,23 +59,45 @@ import org.dasein.util.uom.storage.Storage;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.InputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class DriveSupport extends AbstractBlobStoreSupport<Google> {
     private Google provider;
     static private final Logger logger = Google.getLogger(DriveSupport.class);
 
+    static private final int DOWNLOAD_CHUNK_SIZE = 8 * 1024 * 1024;
+    static private final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+    static private final int MAX_CHUNK_ATTEMPTS = 3;
+    static private final long DIRECT_UPLOAD_LIMIT = 2 * 1000 * 1000; // 2MB
+    static private final int MAX_COMPOSE_SOURCES = 32;
+    /**
+     * Composite upload parts are kept under this prefix, which user objects are not expected to use.
+     */
+    static private final String COMPOSITE_PART_PREFIX = ".dasein-composite-parts/";
+    static private final int BULK_DELETE_PARALLELISM = 8;
+    static private final int BULK_COPY_PARALLELISM = 8;
+    static private final Charset UTF8 = Charset.forName("UTF-8");
+
     public DriveSupport(Google provider) {
         super(provider);
         this.provider = provider;
@@ -76,45 +106,172 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
     @Override protected void get(@Nullable String bucket, @Nonnull String object, @Nonnull File toFile, @Nullable FileTransfer transfer) throws InternalException, CloudException{
         APITrace.begin(provider, "Blob.get");
         try {
+            if( bucket == null ) {
+                logger.error("No bucket was specified for download file request");
+                throw new OperationNotSupportedException("No bucket was specified for download file request");
+            }
+            download(bucket, object, toFile, 0L, -1L, false, transfer);
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    /**
+     * Downloads the given byte range of an object into a file, replacing any existing content of the file.
+     * @param bucket the bucket holding the object
+     * @param object the name of the object
+     * @param toFile the file to write the range to
+     * @param firstByte the offset of the first byte to download
+     * @param lastByte the offset of the last byte to download (inclusive), or a negative value for the end of the object
+     * @param transfer an optional transfer to report progress to
+     * @throws CloudException an error occurred with the cloud provider while downloading
+     * @throws InternalException the file could not be written
+     */
+    public void getRange(@Nonnull String bucket, @Nonnull String object, @Nonnull File toFile, long firstByte, long lastByte, @Nullable FileTransfer transfer) throws InternalException, CloudException {
+        APITrace.begin(provider, "Blob.getRange");
+        try {
+            download(bucket, object, toFile, firstByte, lastByte, false, transfer);
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    /**
+     * Continues an interrupted download, keeping the bytes already in the file and fetching the remainder of the object.
+     * @param bucket the bucket holding the object
+     * @param object the name of the object
+     * @param toFile the partially downloaded file
+     * @param transfer an optional transfer to report progress to
+     * @throws CloudException an error occurred with the cloud provider while downloading
+     * @throws InternalException the file could not be written
+     */
+    public void resumeDownload(@Nonnull String bucket, @Nonnull String object, @Nonnull File toFile, @Nullable FileTransfer transfer) throws InternalException, CloudException {
+        APITrace.begin(provider, "Blob.resumeDownload");
+        try {
+            download(bucket, object, toFile, 0L, -1L, true, transfer);
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    private void download(@Nonnull String bucket, @Nonnull String object, @Nonnull File toFile, long firstByte, long lastByte, boolean resume, @Nullable FileTransfer transfer) throws InternalException, CloudException {
+        com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
+        StorageObject metadata;
+
+        try {
+            metadata = storage.objects().get(bucket, object).execute();
+        } catch (IOException ex) {
+            logger.error(ex.getMessage());
+            if (ex.getClass() == GoogleJsonResponseException.class) {
+                GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+            } else
+                throw new InternalException(ex);
+        }
+        long size = (metadata.getSize() == null ? 0L : metadata.getSize().longValue());
+        long first = Math.max(firstByte, 0L);
+        long last = (lastByte < 0 || lastByte >= size ? size - 1 : lastByte);
+        long length = Math.max(last - first + 1, 0L);
+
+        RandomAccessFile file;
+        try {
+            file = new RandomAccessFile(toFile, "rw");
+        }
+        catch( FileNotFoundException e ) {
+            logger.error("Could not find target file to fetch to " + toFile + ": " + e.getMessage());
+            throw new InternalException(e);
+        }
+        try {
+            FileChannel channel = file.getChannel();
+            long written = 0L;
+
+            if( resume && channel.size() <= length ) {
+                written = channel.size();
+            }
+            else {
+                channel.truncate(0L);
+            }
+            if( transfer != null ) {
+                transfer.setBytesToTransfer(length);
+                transfer.setBytesTransferred(written);
+            }
+            while( written < length ) {
+                long chunkEnd = Math.min(written + DOWNLOAD_CHUNK_SIZE, length) - 1;
+
+                written = downloadChunk(storage, bucket, object, metadata.getGeneration(), first, written, chunkEnd, channel, transfer);
+            }
+            channel.force(false);
+        }
+        catch( IOException e ) {
+            logger.error("Could not fetch file to " + toFile + ": " + e.getMessage());
+            if (e.getClass() == GoogleJsonResponseException.class) {
+                GoogleJsonResponseException gjre = (GoogleJsonResponseException)e;
+                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+            }
+            throw new CloudException(e);
+        }
+        finally {
+            try {
+                file.close();
+            }
+            catch( IOException e ) {
+                logger.warn("Unable to close " + toFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Streams one ranged request straight into the file. A dropped connection is retried from the last byte written
+     * rather than from the start of the chunk.
+     * @return the number of bytes of the range written to the file once the chunk is complete
+     */
+    private long downloadChunk(@Nonnull com.google.api.services.storage.Storage storage, @Nonnull String bucket, @Nonnull String object, @Nullable Long generation, long rangeStart, long written, long chunkEnd, @Nonnull FileChannel channel, @Nullable FileTransfer transfer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE);
+        int attempt = 1;
+
+        while( true ) {
             try {
-                if( bucket == null ) {
-                    logger.error("No bucket was specified for download file request");
-                    throw new OperationNotSupportedException("No bucket was specified for download file request");
-                }
-                InputStream input;
-                com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
                 com.google.api.services.storage.Storage.Objects.Get getObject = storage.objects().get(bucket, object);
-                // Downloading data.
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                // If you're not in AppEngine, download the whole thing in one request, if possible.
-                getObject.getMediaHttpDownloader().setDirectDownloadEnabled(true);
-                getObject.executeMediaAndDownloadTo(out);
-                input = new ByteArrayInputStream(out.toByteArray());
+
+                // pin the generation so every chunk comes from the same version of the object
+                getObject.setGeneration(generation);
+                getObject.getRequestHeaders().setRange("bytes=" + (rangeStart + written) + "-" + (rangeStart + chunkEnd));
+                ReadableByteChannel input = Channels.newChannel(getObject.executeMediaAsInputStream());
 
                 try {
-                    copy(input, new FileOutputStream(toFile), transfer);
+                    while( written <= chunkEnd && input.read(buffer) != -1 ) {
+                        buffer.flip();
+                        while( buffer.hasRemaining() ) {
+                            written += channel.write(buffer, written);
+                        }
+                        buffer.clear();
+                        if( transfer != null ) {
+                            transfer.setBytesTransferred(written);
+                        }
+                    }
+                }
+                finally {
+                    input.close();
                 }
-                catch( FileNotFoundException e ) {
-                    logger.error("Could not find target file to fetch to " + toFile + ": " + e.getMessage());
-                    throw new InternalException(e);
+                if( written <= chunkEnd ) {
+                    throw new IOException("Download of " + object + " ended early at byte " + (rangeStart + written));
                 }
-                catch( IOException e ) {
-                    logger.error("Could not fetch file to " + toFile + ": " + e.getMessage());
-                    throw new CloudException(e);
+                return written;
+            }
+            catch( GoogleJsonResponseException e ) {
+                throw e;
+            }
+            catch( IOException e ) {
+                if( attempt++ >= MAX_CHUNK_ATTEMPTS ) {
+                    throw e;
                 }
-    		} catch (IOException ex) {
-				logger.error(ex.getMessage());
-    			if (ex.getClass() == GoogleJsonResponseException.class) {
-    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-    			} else
-                    throw new InternalException(ex);
-    		}
-        }
-        finally {
-            APITrace.end();
+                logger.warn("Retrying download of " + object + " from byte " + (rangeStart + written) + ": " + e.getMessage());
+                buffer.clear();
+            }
         }
-
     }
 
     @Override protected void put(@Nullable String bucket, @Nonnull String objectName, @Nonnull File file) throws InternalException, CloudException{
@@ -126,29 +283,17 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
                     throw new OperationNotSupportedException("No bucket was specified for upload file request");
                 }
                 com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
-
-                InputStream inputStream = new FileInputStream(file);  // object data, e.g., FileInputStream
                 long byteCount = file.length();  // size of input stream
 
-                InputStreamContent mediaContent = new InputStreamContent("application/octet-stream", inputStream);
-                // Knowing the stream length allows server-side optimization, and client-side progress
-                // reporting with a MediaHttpUploaderProgressListener.
-                mediaContent.setLength(byteCount);
-
-                StorageObject objectMetadata = null;
-
-                com.google.api.services.storage.Storage.Objects.Insert insertObject = storage.objects().insert(bucket, objectMetadata,
-                        mediaContent);
-
-                insertObject.setName(objectName);
-
-                // For small files, you may wish to call setDirectUploadEnabled(true), to
-                // reduce the number of HTTP requests made to the server.
-                if (mediaContent.getLength() > 0 && mediaContent.getLength() <= 2 * 1000 * 1000 /* 2MB */) {
-                    insertObject.getMediaHttpUploader().setDirectUploadEnabled(true);
+                if( byteCount > DIRECT_UPLOAD_LIMIT && byteCount >= provider.getCompositeUploadThreshold() ) {
+                    putComposite(storage, bucket, objectName, file);
+                }
+                else if( byteCount > DIRECT_UPLOAD_LIMIT ) {
+                    new ResumableUpload(storage, bucket, objectName, file, 0L, byteCount, provider.getUploadChunkSize(), provider.getIndexDirectory()).upload();
+                }
+                else {
+                    insert(bucket, objectName, new FileContent("application/octet-stream", file));
                 }
-
-                insertObject.execute();
     		} catch (IOException ex) {
 				logger.error(ex.getMessage());
     			if (ex.getClass() == GoogleJsonResponseException.class) {
@@ -163,6 +308,134 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
         }
     }
 
+    /**
+     * Uploads a large file as up to 32 parts in parallel, each through its own resumable session, and then composes
+     * the parts into the target object. Parts that already exist from an interrupted attempt are not sent again if
+     * their MD5 hash matches the bytes of the file they stand for. Parts are named under a reserved prefix derived
+     * from the target object and the path, size and modification time of the file, so they never collide with user
+     * objects or with the parts of another upload.
+     */
+    private void putComposite(@Nonnull final com.google.api.services.storage.Storage storage, @Nonnull final String bucket, @Nonnull String objectName, @Nonnull final File file) throws IOException, InternalException {
+        final long size = file.length();
+        final int chunkSize = provider.getUploadChunkSize();
+        final String indexDirectory = provider.getIndexDirectory();
+        String partPrefix = COMPOSITE_PART_PREFIX + ResumableUpload.toDigest(bucket + "/" + objectName + "|" + file.getAbsolutePath() + "|" + size + "|" + file.lastModified()) + "/part";
+        long alignment = Math.max(chunkSize / ResumableUpload.CHUNK_ALIGNMENT, 1) * (long)ResumableUpload.CHUNK_ALIGNMENT;
+        long partSize = (size + MAX_COMPOSE_SOURCES - 1) / MAX_COMPOSE_SOURCES;
+
+        partSize = ((partSize + alignment - 1) / alignment) * alignment;
+
+        List<ComposeRequest.SourceObjects> sources = new ArrayList<ComposeRequest.SourceObjects>();
+        List<Future<Void>> parts = new ArrayList<Future<Void>>();
+        ExecutorService executor = Executors.newFixedThreadPool(provider.getUploadParallelism());
+
+        try {
+            for( long offset = 0L; offset < size; offset += partSize ) {
+                final String partName = partPrefix + sources.size();
+                final long partOffset = offset;
+                final long partLength = Math.min(partSize, size - offset);
+
+                sources.add(new ComposeRequest.SourceObjects().setName(partName));
+                parts.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        if( !isUploaded(storage, bucket, partName, file, partOffset, partLength) ) {
+                            new ResumableUpload(storage, bucket, partName, file, partOffset, partLength, chunkSize, indexDirectory).upload();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for( Future<Void> part : parts ) {
+                part.get();
+            }
+        }
+        catch( ExecutionException e ) {
+            if( e.getCause() instanceof IOException ) {
+                throw (IOException)e.getCause();
+            }
+            throw new InternalException(e.getCause());
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InternalException(e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        ComposeRequest compose = new ComposeRequest().setSourceObjects(sources).setDestination(new StorageObject().setContentType("application/octet-stream"));
+
+        storage.objects().compose(bucket, objectName, compose).execute();
+        for( ComposeRequest.SourceObjects source : sources ) {
+            try {
+                storage.objects().delete(bucket, source.getName()).execute();
+            }
+            catch( IOException e ) {
+                logger.warn("Unable to delete composite part " + source.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return true if the part exists and holds exactly the given region of the file
+     */
+    private boolean isUploaded(@Nonnull com.google.api.services.storage.Storage storage, @Nonnull String bucket, @Nonnull String partName, @Nonnull File file, long offset, long length) throws IOException {
+        StorageObject existing;
+
+        try {
+            existing = storage.objects().get(bucket, partName).setFields("size,md5Hash").execute();
+        }
+        catch( GoogleJsonResponseException e ) {
+            if( e.getStatusCode() == 404 ) {
+                return false;
+            }
+            throw e;
+        }
+        if( existing.getSize() == null || existing.getSize().longValue() != length || existing.getMd5Hash() == null ) {
+            return false;
+        }
+        return existing.getMd5Hash().equals(md5(file, offset, length));
+    }
+
+    /**
+     * @return the base64 encoded MD5 hash of a region of a file, in the form Cloud Storage reports as md5Hash
+     */
+    static private @Nonnull String md5(@Nonnull File file, long offset, long length) throws IOException {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        }
+        catch( NoSuchAlgorithmException e ) {
+            throw new IOException("MD5 is not supported by this JVM", e);
+        }
+        RandomAccessFile source = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = source.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE);
+            long position = offset;
+            long end = offset + length;
+
+            while( position < end ) {
+                buffer.clear();
+                buffer.limit((int)Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+
+                if( read < 0 ) {
+                    throw new IOException(file + " ended before byte " + end);
+                }
+                buffer.flip();
+                digest.update(buffer);
+                position += read;
+            }
+        }
+        finally {
+            source.close();
+        }
+        return BaseEncoding.base64().encode(digest.digest());
+    }
+
     @Override protected void put(@Nullable String bucketName, @Nonnull String objectName, @Nonnull String content) throws InternalException, CloudException{
         APITrace.begin(provider, "Blob.put(bucket, object, content)");
         try {
@@ -170,33 +443,82 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
                 logger.error("No bucket was specified for upload file request");
                 throw new OperationNotSupportedException("No bucket was specified for upload file request");
             }
-            try {
-                File tmp = File.createTempFile(objectName, ".txt");
-                PrintWriter writer;
+            insert(bucketName, objectName, new ByteArrayContent("application/octet-stream", content.getBytes(UTF8)));
+        }
+        finally {
+            APITrace.end();
+        }
+    }
 
-                try {
-                    writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tmp)));
-                    writer.print(content);
-                    writer.flush();
-                    writer.close();
-                    put(bucketName, objectName, tmp);
-                }
-                finally {
-                    if( !tmp.delete() ) {
-                        logger.warn("Unable to delete temp file: " + tmp);
-                    }
-                }
-            } catch( IOException e ) {
-                logger.error("Failed to write file: " + e.getMessage());
-                e.printStackTrace();
-                throw new InternalException(e);
+    /**
+     * Uploads an object from memory in a single request.
+     * @param bucket the bucket to upload to
+     * @param objectName the name of the object to create
+     * @param content the object data
+     * @param contentType the media type of the data, or null for application/octet-stream
+     * @throws CloudException an error occurred with the cloud provider while uploading
+     * @throws InternalException an error occurred within Dasein Cloud while uploading
+     */
+    public void putBytes(@Nonnull String bucket, @Nonnull String objectName, @Nonnull byte[] content, @Nullable String contentType) throws InternalException, CloudException {
+        APITrace.begin(provider, "Blob.putBytes");
+        try {
+            insert(bucket, objectName, new ByteArrayContent(contentType == null ? "application/octet-stream" : contentType, content));
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    /**
+     * Uploads an object from a stream without staging it on disk. The stream is closed once it has been read.
+     * @param bucket the bucket to upload to
+     * @param objectName the name of the object to create
+     * @param input the object data
+     * @param length the number of bytes in the stream, or a negative value if unknown
+     * @param contentType the media type of the data, or null for application/octet-stream
+     * @throws CloudException an error occurred with the cloud provider while uploading
+     * @throws InternalException an error occurred within Dasein Cloud while uploading
+     */
+    public void putStream(@Nonnull String bucket, @Nonnull String objectName, @Nonnull InputStream input, long length, @Nullable String contentType) throws InternalException, CloudException {
+        APITrace.begin(provider, "Blob.putStream");
+        try {
+            InputStreamContent mediaContent = new InputStreamContent(contentType == null ? "application/octet-stream" : contentType, input);
+
+            if( length >= 0 ) {
+                mediaContent.setLength(length);
             }
+            insert(bucket, objectName, mediaContent);
         }
         finally {
             APITrace.end();
         }
     }
 
+    /**
+     * Sends the content with objects().insert, in a single request when its length is known and small and
+     * through the client's resumable uploader otherwise.
+     */
+    private void insert(@Nonnull String bucket, @Nonnull String objectName, @Nonnull AbstractInputStreamContent mediaContent) throws InternalException, CloudException {
+        try {
+            com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
+            com.google.api.services.storage.Storage.Objects.Insert insertObject = storage.objects().insert(bucket, null, mediaContent);
+            long length = mediaContent.getLength();
+
+            insertObject.setName(objectName);
+            if( length >= 0 && length <= DIRECT_UPLOAD_LIMIT ) {
+                insertObject.getMediaHttpUploader().setDirectUploadEnabled(true);
+            }
+            insertObject.execute();
+        } catch (IOException ex) {
+            logger.error(ex.getMessage());
+            if (ex.getClass() == GoogleJsonResponseException.class) {
+                GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+                throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+            } else
+                throw new InternalException(ex);
+        }
+    }
+
     @Override public boolean allowsNestedBuckets() throws CloudException, InternalException{
         return false;
     }
@@ -243,7 +565,7 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
         try {
             try {
                 com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
-                Bucket myBucket = storage.buckets().get(bucket).execute();
+                Bucket myBucket = storage.buckets().get(bucket).setFields("name").execute();
                 if (myBucket != null) {
                     return true;
                 }
@@ -263,7 +585,7 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
         try {
             try{
                 com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
-                Bucket myBucket = storage.buckets().get(bucketName).execute();
+                Bucket myBucket = storage.buckets().get(bucketName).setFields(FieldMask.BUCKET.forGet(provider)).execute();
                 if (myBucket != null) {
                     Blob blob = toBucket(myBucket);
                     return blob;
@@ -298,7 +620,7 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
             }
             try{
                 com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
-                StorageObject myObject = storage.objects().get(bucketName, objectName).execute();
+                StorageObject myObject = storage.objects().get(bucketName, objectName).setFields(FieldMask.OBJECT.forGet(provider)).execute();
                 Blob blob = toObject(myObject);
                 return blob;
     		} catch (IOException ex) {
@@ -414,6 +736,10 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
         return true;
     }
 
+    /**
+     * Streams the buckets, or the objects of a bucket, page by page. Iterating past the first page throws a
+     * {@link PagedListingException} if a later page cannot be read.
+     */
     @Nonnull @Override public Iterable<Blob> list(@Nullable String bucket) throws CloudException, InternalException{
         APITrace.begin(provider, "Blob.list");
         try {
@@ -421,40 +747,63 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
             if (ctx == null) {
                 throw new InternalException("Context is null");
             }
-            try {
-                ArrayList<Blob> list = new ArrayList<Blob>();
-                com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
-                if (bucket == null) {
-                    Buckets buckets = storage.buckets().list(ctx.getAccountNumber()).execute();
-                    if(buckets != null && buckets.getItems() != null){
-                        for (int i = 0; i<buckets.getItems().size(); i++) {
-                            Blob blob = toBucket(buckets.getItems().get(i));
-                            if (blob != null) {
-                                list.add(blob);
+            final com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
+            final String project = ctx.getAccountNumber();
+            if (bucket == null) {
+                return new PagedIterable<Buckets, Blob>("listing buckets") {
+                    @Override
+                    protected Buckets fetch(String pageToken) throws IOException {
+                        return storage.buckets().list(project).setFields(FieldMask.BUCKET.forList(provider)).setPageToken(pageToken).execute();
+                    }
+
+                    @Override
+                    protected String getNextPageToken(@Nonnull Buckets page) {
+                        return page.getNextPageToken();
+                    }
+
+                    @Override
+                    protected @Nonnull Collection<Blob> toItems(@Nonnull Buckets page) throws CloudException, InternalException {
+                        ArrayList<Blob> list = new ArrayList<Blob>();
+                        if (page.getItems() != null) {
+                            for (Bucket item : page.getItems()) {
+                                Blob blob = toBucket(item);
+                                if (blob != null) {
+                                    list.add(blob);
+                                }
                             }
                         }
+                        return list;
                     }
-                }
-                else {
-                    Objects objects = storage.objects().list(bucket).execute();
-                    if (objects.getItems() != null) {
-                        for (int i = 0; i<objects.getItems().size(); i++) {
-                            Blob blob = toObject(objects.getItems().get(i));
-                            if (blob != null) {
-                                list.add(blob);
+                }.start();
+            }
+            else {
+                final String bucketName = bucket;
+                return new PagedIterable<Objects, Blob>("listing objects in " + bucket) {
+                    @Override
+                    protected Objects fetch(String pageToken) throws IOException {
+                        return storage.objects().list(bucketName).setFields(FieldMask.OBJECT.forList(provider)).setPageToken(pageToken).execute();
+                    }
+
+                    @Override
+                    protected String getNextPageToken(@Nonnull Objects page) {
+                        return page.getNextPageToken();
+                    }
+
+                    @Override
+                    protected @Nonnull Collection<Blob> toItems(@Nonnull Objects page) throws CloudException, InternalException {
+                        ArrayList<Blob> list = new ArrayList<Blob>();
+                        if (page.getItems() != null) {
+                            for (StorageObject item : page.getItems()) {
+                                Blob blob = toObject(item);
+                                if (blob != null) {
+                                    list.add(blob);
+                                }
                             }
                         }
+                        return list;
                     }
-                }
-                return list;
-    		} catch (IOException ex) {
-    			logger.error(ex.getMessage());
-    			if (ex.getClass() == GoogleJsonResponseException.class) {
-    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
-    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
-    			} else
-                    throw new InternalException(ex);
-    		}
+                }.start();
+            }
         }
         finally {
             APITrace.end();
@@ -516,7 +865,7 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
             if (objectName == null)  {
                 throw new InternalException("Object name is not specified");
             }
-            copyFile(fromBucket, objectName, toBucket, objectName);
+            copyObject(fromBucket, objectName, toBucket, objectName);
             removeObject(fromBucket, objectName);
         }
         finally {
@@ -527,13 +876,27 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
     @Override public void removeBucket(@Nonnull String bucket) throws CloudException, InternalException{
         APITrace.begin(provider, "blob.removeBucket");
         try {
-            //first of all we need to remove the objects
-            for (Blob blob : list(bucket)) {
-                removeObject(bucket, blob.getObjectName());
+            com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
+
+            //first of all we need to remove the objects, streaming their names into batched deletes
+            BulkDelete deletes = new BulkDelete(storage, bucket, BULK_DELETE_PARALLELISM);
+            Iterable<String> names = listObjectNames(storage, bucket, null);
+
+            try {
+                for( String name : names ) {
+                    deletes.add(name);
+                }
+            }
+            catch( PagedListingException e ) {
+                deletes.finish();
+                if( e.getCloudException() != null ) {
+                    throw e.getCloudException();
+                }
+                throw e.getInternalException();
             }
+            deletes.finish();
 
             try {
-                com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
                 storage.buckets().delete(bucket).execute();
     		} catch (IOException ex) {
     			logger.error(ex.getMessage());
@@ -575,7 +938,10 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
     @Nonnull @Override public String renameBucket(@Nonnull String oldName, @Nonnull String newName, boolean findFreeName) throws CloudException, InternalException{
         APITrace.begin(provider, "Blob.renameBucket");
         try {
-            copy(oldName, null, newName, null);
+            if( !exists(newName) ) {
+                createBucket(newName, false);
+            }
+            copyObjects(oldName, null, newName);
             removeBucket(oldName);
             return newName;
         }
@@ -590,7 +956,7 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
             if( bucket == null ) {
                 throw new CloudException("No bucket was specified");
             }
-            copy(bucket, oldName, bucket, newName);
+            copyObject(bucket, oldName, bucket, newName);
             removeObject(bucket, oldName);
         }
         finally {
@@ -616,6 +982,117 @@ public class DriveSupport extends AbstractBlobStoreSupport<Google> {
         }
     }
 
+    /**
+     * Copies an object on the server side without downloading it.
+     * @param fromBucket the bucket of the source object
+     * @param fromName the name of the source object
+     * @param toBucket the bucket of the copy
+     * @param toName the name of the copy
+     * @throws CloudException an error occurred with the cloud provider while copying
+     * @throws InternalException an error occurred within Dasein Cloud while copying
+     */
+    public void copyObject(@Nonnull String fromBucket, @Nonnull String fromName, @Nonnull String toBucket, @Nonnull String toName) throws CloudException, InternalException {
+        APITrace.begin(provider, "Blob.copyObject");
+        try {
+            try {
+                BulkCopy.rewrite(provider.getGoogleStorage(), fromBucket, fromName, toBucket, toName);
+    		} catch (IOException ex) {
+    			logger.error(ex.getMessage());
+    			if (ex.getClass() == GoogleJsonResponseException.class) {
+    				GoogleJsonResponseException gjre = (GoogleJsonResponseException)ex;
+    				throw new GoogleException(CloudErrorType.GENERAL, gjre.getStatusCode(), gjre.getContent(), gjre.getDetails().getMessage());
+    			} else
+                    throw new InternalException(ex);
+    		}
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    /**
+     * Moves every object whose name starts with the given prefix to another bucket. The objects are copied on the
+     * server side concurrently, and the sources are deleted only once every copy has succeeded.
+     * @param fromBucket the bucket to move objects from
+     * @param prefix the prefix of the objects to move, or null for every object
+     * @param toBucket the bucket to move objects to
+     * @throws CloudException an error occurred with the cloud provider while moving
+     * @throws InternalException an error occurred within Dasein Cloud while moving
+     */
+    public void moveObjects(@Nonnull String fromBucket, @Nullable String prefix, @Nonnull String toBucket) throws CloudException, InternalException {
+        APITrace.begin(provider, "Blob.moveObjects");
+        try {
+            if( fromBucket.equals(toBucket) ) {
+                throw new InternalException("Objects cannot be moved within the same bucket");
+            }
+            List<String> moved = copyObjects(fromBucket, prefix, toBucket);
+            BulkDelete deletes = new BulkDelete(provider.getGoogleStorage(), fromBucket, BULK_DELETE_PARALLELISM);
+
+            for( String name : moved ) {
+                deletes.add(name);
+            }
+            deletes.finish();
+        }
+        finally {
+            APITrace.end();
+        }
+    }
+
+    /**
+     * Copies every object with the given prefix to another bucket, keeping its name.
+     * @return the names of the copied objects
+     */
+    private @Nonnull List<String> copyObjects(@Nonnull String fromBucket, @Nullable String prefix, @Nonnull String toBucket) throws CloudException, InternalException {
+        com.google.api.services.storage.Storage storage = provider.getGoogleStorage();
+        BulkCopy copies = new BulkCopy(storage, fromBucket, toBucket, BULK_COPY_PARALLELISM);
+        List<String> names = new ArrayList<String>();
+
+        try {
+            for( String name : listObjectNames(storage, fromBucket, prefix) ) {
+                copies.add(name, name);
+                names.add(name);
+            }
+        }
+        catch( PagedListingException e ) {
+            copies.finish();
+            if( e.getCloudException() != null ) {
+                throw e.getCloudException();
+            }
+            throw e.getInternalException();
+        }
+        copies.finish();
+        return names;
+    }
+
+    /**
+     * Streams the names of the objects in a bucket, requesting only the name of each object.
+     */
+    private @Nonnull Iterable<String> listObjectNames(@Nonnull final com.google.api.services.storage.Storage storage, @Nonnull final String bucket, @Nullable final String prefix) throws CloudException, InternalException {
+        return new PagedIterable<Objects, String>("listing objects in " + bucket) {
+            @Override
+            protected Objects fetch(String pageToken) throws IOException {
+                return storage.objects().list(bucket).setPrefix(prefix).setFields("items/name,nextPageToken").setMaxResults(1000L).setPageToken(pageToken).execute();
+            }
+
+            @Override
+            protected String getNextPageToken(@Nonnull Objects page) {
+                return page.getNextPageToken();
+            }
+
+            @Override
+            protected @Nonnull Collection<String> toItems(@Nonnull Objects page) {
+                List<String> items = new ArrayList<String>();
+
+                if( page.getItems() != null ) {
+                    for( StorageObject object : page.getItems() ) {
+                        items.add(object.getName());
+                    }
+                }
+                return items;
+            }
+        }.start();
+    }
+
     @Nonnull @Override public String[] mapServiceAction(@Nonnull ServiceAction action){
         return new String[0];
     }
@@ -0,0 +1,421 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.storage;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.AbstractHttpContent;
+import com.google.api.client.http.EmptyContent;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpContent;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.services.storage.Storage;
+import com.google.api.services.storage.model.StorageObject;
+import com.google.common.io.BaseEncoding;
+import org.apache.log4j.Logger;
+import org.dasein.cloud.google.Google;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Uploads a region of a local file to Cloud Storage through the resumable upload protocol. Each chunk is
+ * memory-mapped from the file rather than copied onto the heap. The session URI is saved to a state file, so an
+ * upload interrupted by a crash continues from the last offset the server committed the next time the same region
+ * of the same file is uploaded to the same object.
+ * <p>Anyone holding the session URI can write to the upload, so state files are kept in a directory only the
+ * current user can read: a gcs-uploads directory under the index directory when one is configured, otherwise a
+ * per-user directory under the temporary directory. When no such directory can be set up the upload still runs
+ * but cannot be resumed.</p>
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+class ResumableUpload {
+    static private final Logger logger = Google.getLogger(ResumableUpload.class);
+
+    /**
+     * Every chunk but the last must be a multiple of 256KB.
+     */
+    static final int CHUNK_ALIGNMENT = 256 * 1024;
+
+    static private final int RESUME_INCOMPLETE = 308;
+    static private final long COMPLETE = -1L;
+    static private final long EXPIRED = -2L;
+    static private final int MAX_ATTEMPTS = 5;
+    static private final long INITIAL_BACKOFF = 1000L;
+    static private final long MAX_BACKOFF = 32000L;
+    static private final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final Storage storage;
+    private final String bucket;
+    private final String objectName;
+    private final File file;
+    private final long offset;
+    private final long length;
+    private final int chunkSize;
+    private final String stateKey;
+    private final File stateFile;
+
+    /**
+     * @param storage the storage client
+     * @param bucket the target bucket
+     * @param objectName the name of the object to create
+     * @param file the source file
+     * @param offset the offset within the file of the first byte to upload
+     * @param length the number of bytes to upload
+     * @param chunkSize the preferred size of each chunk, rounded down to a multiple of 256KB
+     * @param indexDirectory the configured index directory, or null to keep the state under the temporary directory
+     */
+    ResumableUpload(@Nonnull Storage storage, @Nonnull String bucket, @Nonnull String objectName, @Nonnull File file, long offset, long length, int chunkSize, @Nullable String indexDirectory) {
+        this.storage = storage;
+        this.bucket = bucket;
+        this.objectName = objectName;
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.chunkSize = Math.max(chunkSize / CHUNK_ALIGNMENT, 1) * CHUNK_ALIGNMENT;
+        this.stateKey = bucket + "/" + objectName + "|" + file.getAbsolutePath() + "|" + offset + "|" + length + "|" + file.lastModified();
+        File stateDirectory = getStateDirectory(indexDirectory);
+
+        this.stateFile = (stateDirectory == null ? null : new File(stateDirectory, "upload-" + toDigest(stateKey) + ".properties"));
+    }
+
+    /**
+     * @param key any string
+     * @return the hex encoded SHA-1 digest of the string
+     */
+    static @Nonnull String toDigest(@Nonnull String key) {
+        try {
+            return BaseEncoding.base16().lowerCase().encode(MessageDigest.getInstance("SHA-1").digest(key.getBytes(UTF8)));
+        }
+        catch( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * @return the directory, readable by the current user only, holding upload state, or null if none could be set up
+     */
+    static private @Nullable File getStateDirectory(@Nullable String indexDirectory) {
+        File directory;
+
+        if( indexDirectory == null ) {
+            directory = new File(System.getProperty("java.io.tmpdir"), "dasein-gcs-uploads-" + System.getProperty("user.name"));
+        }
+        else {
+            directory = new File(indexDirectory, "gcs-uploads");
+        }
+        Path path = directory.toPath();
+
+        try {
+            if( Files.isSymbolicLink(path) ) {
+                throw new IOException("it is a symbolic link");
+            }
+            if( FileSystems.getDefault().supportedFileAttributeViews().contains("posix") ) {
+                Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+
+                if( !Files.isDirectory(path) ) {
+                    Files.createDirectories(path, PosixFilePermissions.asFileAttribute(ownerOnly));
+                }
+                // fails unless the directory belongs to the current user
+                Files.setPosixFilePermissions(path, ownerOnly);
+            }
+            else {
+                if( !directory.isDirectory() && !directory.mkdirs() ) {
+                    throw new IOException("it could not be created");
+                }
+                if( !(directory.setReadable(false, false) && directory.setReadable(true, true)
+                        && directory.setWritable(false, false) && directory.setWritable(true, true)
+                        && directory.setExecutable(false, false) && directory.setExecutable(true, true)) ) {
+                    throw new IOException("its permissions could not be restricted");
+                }
+            }
+            return directory;
+        }
+        catch( IOException e ) {
+            logger.warn("Not keeping upload state in " + directory + ", uploads will not be resumable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Sends the file region, resuming a previously saved session when there is one.
+     * @throws IOException the upload failed; the session is kept so that a later attempt can resume it
+     */
+    void upload() throws IOException {
+        String session = loadSession();
+        long committed = 0L;
+
+        if( session != null ) {
+            committed = send(session, new EmptyContent(), "bytes */" + length);
+            if( committed == COMPLETE ) {
+                clearSession();
+                return;
+            }
+            if( committed == EXPIRED ) {
+                logger.info("Upload session for " + objectName + " has expired, starting over");
+                session = null;
+                committed = 0L;
+            }
+            else {
+                logger.info("Resuming upload of " + objectName + " at byte " + committed);
+            }
+        }
+        if( session == null ) {
+            session = startSession();
+            saveSession(session);
+        }
+        RandomAccessFile source = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = source.getChannel();
+            int attempt = 1;
+
+            if( length == 0L ) {
+                committed = send(session, new EmptyContent(), "bytes */0");
+            }
+            while( committed >= 0L ) {
+                try {
+                    if( attempt > 1 ) {
+                        // the failed chunk may have been partly committed, so continue from wherever the server is
+                        committed = send(session, new EmptyContent(), "bytes */" + length);
+                    }
+                    if( committed >= 0L ) {
+                        long end = Math.min(committed + chunkSize, length);
+                        ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset + committed, end - committed);
+
+                        committed = send(session, new MappedContent(chunk), "bytes " + committed + "-" + (end - 1) + "/" + length);
+                    }
+                    attempt = 1;
+                }
+                catch( IOException e ) {
+                    if( !isRetryable(e) || attempt >= MAX_ATTEMPTS ) {
+                        throw e;
+                    }
+                    logger.warn("Chunk of " + objectName + " failed (attempt " + attempt + " of " + MAX_ATTEMPTS + "), resuming from the committed offset: " + e.getMessage());
+                    backOff(attempt++);
+                }
+                if( committed == EXPIRED ) {
+                    clearSession();
+                    throw new IOException("Upload session for " + objectName + " expired before the upload completed");
+                }
+            }
+        }
+        finally {
+            source.close();
+        }
+        clearSession();
+    }
+
+    /**
+     * Rate limiting (429) and server errors (5xx) are transient, as is any failure without a response; other
+     * responses mean the request itself was rejected.
+     */
+    static boolean isRetryable(@Nonnull IOException e) {
+        if( e instanceof HttpResponseException ) {
+            int status = ((HttpResponseException)e).getStatusCode();
+
+            return (status == 429 || status >= 500);
+        }
+        return true;
+    }
+
+    /**
+     * Waits before another attempt, doubling the wait with each failed attempt.
+     */
+    private void backOff(int attempt) throws IOException {
+        try {
+            Thread.sleep(Math.min(MAX_BACKOFF, INITIAL_BACKOFF << Math.min(attempt - 1, 5)));
+        }
+        catch( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading " + objectName);
+        }
+    }
+
+    private @Nonnull String startSession() throws IOException {
+        GenericUrl url = new GenericUrl(storage.getRootUrl() + "upload/" + storage.getServicePath() + "b/" + bucket + "/o");
+
+        url.set("uploadType", "resumable");
+        HttpRequest request = storage.getRequestFactory().buildPostRequest(url, new JsonHttpContent(storage.getJsonFactory(), new StorageObject().setName(objectName)));
+
+        request.getHeaders().set("X-Upload-Content-Type", "application/octet-stream");
+        request.getHeaders().set("X-Upload-Content-Length", length);
+        request.setThrowExceptionOnExecuteError(false);
+        HttpResponse response = request.execute();
+
+        try {
+            if( !response.isSuccessStatusCode() ) {
+                throw GoogleJsonResponseException.from(storage.getJsonFactory(), response);
+            }
+            String location = response.getHeaders().getLocation();
+
+            if( location == null ) {
+                throw new IOException("No upload session was returned for " + objectName);
+            }
+            return location;
+        }
+        finally {
+            response.disconnect();
+        }
+    }
+
+    /**
+     * Sends a chunk, or an empty status query, to the session.
+     * @return the number of bytes the server has committed, {@link #COMPLETE} once the object exists or {@link #EXPIRED} if the session is gone
+     */
+    private long send(@Nonnull String session, @Nonnull HttpContent content, @Nonnull String contentRange) throws IOException {
+        HttpRequest request = storage.getRequestFactory().buildPutRequest(new GenericUrl(session), content);
+
+        request.getHeaders().setContentRange(contentRange);
+        request.setThrowExceptionOnExecuteError(false);
+        request.setFollowRedirects(false);
+        HttpResponse response = request.execute();
+
+        try {
+            int status = response.getStatusCode();
+
+            if( status == 200 || status == 201 ) {
+                return COMPLETE;
+            }
+            if( status == RESUME_INCOMPLETE ) {
+                String range = response.getHeaders().getRange();
+
+                return (range == null ? 0L : Long.parseLong(range.substring(range.lastIndexOf('-') + 1)) + 1L);
+            }
+            if( status == 404 || status == 410 ) {
+                return EXPIRED;
+            }
+            throw GoogleJsonResponseException.from(storage.getJsonFactory(), response);
+        }
+        finally {
+            response.disconnect();
+        }
+    }
+
+    private @Nullable String loadSession() {
+        if( stateFile == null || !stateFile.exists() ) {
+            return null;
+        }
+        Properties state = new Properties();
+
+        try {
+            InputStream input = new FileInputStream(stateFile);
+
+            try {
+                state.load(input);
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to read upload state " + stateFile + ": " + e.getMessage());
+            return null;
+        }
+        return (stateKey.equals(state.getProperty("key")) ? state.getProperty("session") : null);
+    }
+
+    private void saveSession(@Nonnull String session) {
+        if( stateFile == null ) {
+            return;
+        }
+        Properties state = new Properties();
+
+        state.setProperty("key", stateKey);
+        state.setProperty("session", session);
+        try {
+            OutputStream output = new FileOutputStream(stateFile);
+
+            try {
+                state.store(output, null);
+            }
+            finally {
+                output.close();
+            }
+        }
+        catch( IOException e ) {
+            logger.warn("Unable to save upload state " + stateFile + ", the upload will not be resumable: " + e.getMessage());
+        }
+    }
+
+    private void clearSession() {
+        if( stateFile != null && stateFile.exists() && !stateFile.delete() ) {
+            logger.warn("Unable to delete upload state " + stateFile);
+        }
+    }
+
+    /**
+     * Request content backed by a mapped region of the source file.
+     */
+    static private class MappedContent extends AbstractHttpContent {
+        private final ByteBuffer buffer;
+
+        MappedContent(@Nonnull ByteBuffer buffer) {
+            super("application/octet-stream");
+            this.buffer = buffer;
+        }
+
+        @Override
+        public long getLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean retrySupported() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            ByteBuffer data = buffer.duplicate();
+
+            while( data.hasRemaining() ) {
+                target.write(data);
+            }
+            out.flush();
+        }
+    }
+}
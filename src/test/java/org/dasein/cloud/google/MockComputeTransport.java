@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.GenericJson;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.compute.Compute;
+
+/**
+ * An in-memory Compute endpoint for unit tests. Every request is recorded and answered by a {@link Handler}, so
+ * tests can script the API without network access.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class MockComputeTransport extends MockHttpTransport {
+    static public final JsonFactory JSON = new JacksonFactory();
+
+    /**
+     * Answers the requests sent to the transport. Handlers may be called from several threads at once.
+     */
+    public interface Handler {
+        /**
+         * @param method the HTTP method
+         * @param url the request URL
+         * @param content the request body, or an empty string if there is none
+         * @return the response to send back
+         * @throws IOException the request should fail at the transport level
+         */
+        @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException;
+    }
+
+    /**
+     * @param model the response body
+     * @return a 200 response carrying the model as JSON
+     */
+    static public @Nonnull MockLowLevelHttpResponse json(@Nonnull GenericJson model) throws IOException {
+        return new MockLowLevelHttpResponse().setStatusCode(200).setContentType(Json.MEDIA_TYPE).setContent(JSON.toString(model));
+    }
+
+    /**
+     * @param status the HTTP status
+     * @param message the error message
+     * @return a Google JSON error response
+     */
+    static public @Nonnull MockLowLevelHttpResponse error(int status, @Nonnull String message) {
+        String body = "{\"error\":{\"code\":" + status + ",\"message\":\"" + message + "\",\"errors\":[{\"message\":\"" + message + "\"}]}}";
+
+        return new MockLowLevelHttpResponse().setStatusCode(status).setContentType(Json.MEDIA_TYPE).setContent(body);
+    }
+
+    private final Handler handler;
+    private final List<String> requests = new ArrayList<String>();
+
+    public MockComputeTransport(@Nonnull Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * @return a Compute client talking to this transport
+     */
+    public @Nonnull Compute newCompute() {
+        return new Compute.Builder(this, JSON, null).setApplicationName("dasein-test").build();
+    }
+
+    /**
+     * @return every request sent so far, as "METHOD url"
+     */
+    public @Nonnull List<String> getRequests() {
+        synchronized( requests ) {
+            return new ArrayList<String>(requests);
+        }
+    }
+
+    /**
+     * @param method the HTTP method
+     * @param pathPart text the request path must contain, or null to count every request of the method
+     * @return the number of matching requests sent so far
+     */
+    public int count(@Nonnull String method, @Nullable String pathPart) {
+        int count = 0;
+
+        for( String request : getRequests() ) {
+            String path = new GenericUrl(request.substring(request.indexOf(' ') + 1)).getRawPath();
+
+            if( request.startsWith(method + " ") && (pathPart == null || path.contains(pathPart)) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public LowLevelHttpRequest buildRequest(final String method, final String url) throws IOException {
+        return new MockLowLevelHttpRequest(url) {
+            @Override
+            public LowLevelHttpResponse execute() throws IOException {
+                synchronized( requests ) {
+                    requests.add(method + " " + url);
+                }
+                return handler.handle(method, new GenericUrl(url), getContentAsString());
+            }
+        };
+    }
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.dasein.cloud.CloudException;
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.Operation;
+import com.google.api.services.compute.model.OperationList;
+
+/**
+ * Polls operations through {@link OperationTracker} against a scripted Compute endpoint, with intervals and
+ * deadlines in milliseconds so that backoff and timeouts can be observed quickly.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class OperationTrackerTest {
+    static private final String PROJECT = "test-project";
+    static private final String ZONE = "us-central1-a";
+
+    /**
+     * Records the delay of every poll scheduled by the tracker.
+     */
+    static private class RecordingScheduler extends ScheduledThreadPoolExecutor {
+        private final List<Long> delays = Collections.synchronizedList(new ArrayList<Long>());
+
+        RecordingScheduler() {
+            super(2);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            return super.schedule(command, delay, unit);
+        }
+
+        List<Long> getDelays() {
+            synchronized( delays ) {
+                return new ArrayList<Long>(delays);
+            }
+        }
+    }
+
+    private final RecordingScheduler scheduler = new RecordingScheduler();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    static private @Nonnull Operation operation(@Nonnull String name, @Nonnull String status) {
+        return new Operation().setName(name).setStatus(status);
+    }
+
+    static private boolean isList(@Nonnull GenericUrl url) {
+        return url.getRawPath().endsWith("/operations");
+    }
+
+    static private @Nonnull String getName(@Nonnull GenericUrl url) {
+        String path = url.getRawPath();
+
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @param url a coalesced list request
+     * @return the operation names matched by its filter
+     */
+    static private @Nonnull List<String> getFilteredNames(@Nonnull GenericUrl url) {
+        String filter = (String)url.getFirst("filter");
+
+        assertTrue("Unexpected filter " + filter, filter.startsWith("name eq (") && filter.endsWith(")"));
+        return Arrays.asList(filter.substring("name eq (".length(), filter.length() - 1).split("\\|"));
+    }
+
+    /**
+     * @param done the number of polls after which the operation reports DONE
+     * @param gets counts the polls
+     * @return a handler polling a single operation
+     */
+    static private @Nonnull MockComputeTransport.Handler finishingAfter(final int done, final AtomicInteger gets) {
+        return new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                return MockComputeTransport.json(operation(getName(url), gets.incrementAndGet() >= done ? "DONE" : "RUNNING"));
+            }
+        };
+    }
+
+    @Test
+    public void completesWhenTheOperationIsDone() throws Exception {
+        AtomicInteger gets = new AtomicInteger();
+        MockComputeTransport transport = new MockComputeTransport(finishingAfter(3, gets));
+        OperationTracker tracker = new OperationTracker(scheduler, false, 10000L, 10L, 40L);
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "PENDING"), GoogleOperationType.ZONE_OPERATION, null, ZONE);
+
+        assertEquals("DONE", future.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(3, gets.get());
+        assertEquals(3, transport.count("GET", "/zones/" + ZONE + "/operations/op-1"));
+    }
+
+    @Test
+    public void completesWithoutPollingAnOperationAlreadyDone() throws Exception {
+        AtomicInteger gets = new AtomicInteger();
+        MockComputeTransport transport = new MockComputeTransport(finishingAfter(1, gets));
+        OperationTracker tracker = new OperationTracker(scheduler, false, 10000L, 10L, 40L);
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "DONE"), GoogleOperationType.GLOBAL_OPERATION, null, null);
+
+        assertTrue(future.isDone());
+        assertEquals("DONE", future.get().getStatus());
+        assertEquals(0, gets.get());
+    }
+
+    @Test
+    public void backsOffUpToTheMaximumInterval() throws Exception {
+        AtomicInteger gets = new AtomicInteger();
+        MockComputeTransport transport = new MockComputeTransport(finishingAfter(6, gets));
+        OperationTracker tracker = new OperationTracker(scheduler, false, 10000L, 10L, 40L);
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "PENDING"), GoogleOperationType.ZONE_OPERATION, null, ZONE);
+
+        assertEquals("DONE", future.get(5, TimeUnit.SECONDS).getStatus());
+        // each interval is 1.5 times the previous one until it reaches the maximum
+        assertEquals(Arrays.asList(10L, 15L, 22L, 33L, 40L, 40L), scheduler.getDelays());
+    }
+
+    @Test
+    public void failsWithTheOperationError() throws Exception {
+        MockComputeTransport transport = new MockComputeTransport(new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                Operation.Error.Errors error = new Operation.Error.Errors().setCode("QUOTA_EXCEEDED").setMessage("Quota 'CPUS' exceeded");
+
+                return MockComputeTransport.json(operation(getName(url), "DONE").setError(new Operation.Error().setErrors(Collections.singletonList(error))));
+            }
+        });
+        OperationTracker tracker = new OperationTracker(scheduler, false, 10000L, 10L, 40L);
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "PENDING"), GoogleOperationType.REGION_OPERATION, "us-central1", null);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The operation error was not reported");
+        }
+        catch( ExecutionException ex ) {
+            assertTrue(ex.getCause() instanceof CloudException);
+            assertTrue(ex.getCause().getMessage().contains("Quota 'CPUS' exceeded"));
+        }
+        assertEquals(1, transport.count("GET", "/regions/us-central1/operations/op-1"));
+    }
+
+    @Test
+    public void keepsPollingThroughTransientErrors() throws Exception {
+        final AtomicInteger gets = new AtomicInteger();
+        MockComputeTransport transport = new MockComputeTransport(new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                if( gets.incrementAndGet() == 1 ) {
+                    return MockComputeTransport.error(503, "Backend unavailable");
+                }
+                return MockComputeTransport.json(operation(getName(url), "DONE"));
+            }
+        });
+        OperationTracker tracker = new OperationTracker(scheduler, false, 10000L, 10L, 40L);
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "PENDING"), GoogleOperationType.ZONE_OPERATION, null, ZONE);
+
+        assertEquals("DONE", future.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(2, gets.get());
+    }
+
+    @Test
+    public void failsWhenTheDeadlinePasses() throws Exception {
+        MockComputeTransport transport = new MockComputeTransport(finishingAfter(Integer.MAX_VALUE, new AtomicInteger()));
+        OperationTracker tracker = new OperationTracker(scheduler, false, 100L, 10L, 40L);
+        long start = System.currentTimeMillis();
+
+        Future<Operation> future = tracker.track(transport.newCompute(), PROJECT, operation("op-1", "PENDING"), GoogleOperationType.ZONE_OPERATION, null, ZONE);
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The operation did not time out");
+        }
+        catch( ExecutionException ex ) {
+            assertTrue(ex.getCause() instanceof CloudException);
+            assertEquals(408, ((CloudException)ex.getCause()).getHttpCode());
+        }
+        assertTrue(System.currentTimeMillis() - start >= 100L);
+    }
+
+    @Test
+    public void coalescesOperationsOfAScopeIntoFilteredListCalls() throws Exception {
+        final List<List<String>> filters = Collections.synchronizedList(new ArrayList<List<String>>());
+        final AtomicInteger gets = new AtomicInteger();
+        MockComputeTransport transport = new MockComputeTransport(new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                if( !isList(url) ) {
+                    gets.incrementAndGet();
+                    return MockComputeTransport.json(operation(getName(url), "DONE"));
+                }
+                List<String> names = getFilteredNames(url);
+                List<Operation> items = new ArrayList<Operation>();
+
+                filters.add(names);
+                for( String name : names ) {
+                    items.add(operation(name, "DONE"));
+                }
+                return MockComputeTransport.json(new OperationList().setItems(items));
+            }
+        });
+        // a long first interval so that every operation has joined the scope before its first tick
+        OperationTracker tracker = new OperationTracker(scheduler, true, 10000L, 500L, 1000L);
+        Compute gce = transport.newCompute();
+        int total = NameFilter.MAX_NAMES_PER_FILTER + 10;
+        List<Future<Operation>> futures = new ArrayList<Future<Operation>>();
+
+        for( int i = 0; i < total; i++ ) {
+            futures.add(tracker.track(gce, PROJECT, operation("op-" + i, "PENDING"), GoogleOperationType.ZONE_OPERATION, null, ZONE));
+        }
+        for( Future<Operation> future : futures ) {
+            assertEquals("DONE", future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(0, gets.get());
+        assertEquals(2, filters.size());
+
+        List<String> polled = new ArrayList<String>();
+
+        for( List<String> names : filters ) {
+            assertTrue(names.size() <= NameFilter.MAX_NAMES_PER_FILTER);
+            polled.addAll(names);
+        }
+        assertEquals(total, polled.size());
+        for( int i = 0; i < total; i++ ) {
+            assertTrue(polled.contains("op-" + i));
+        }
+        assertEquals(2, transport.count("GET", "/zones/" + ZONE + "/operations"));
+    }
+
+    @Test
+    public void coalescedOperationsFailWhenTheDeadlinePasses() throws Exception {
+        MockComputeTransport transport = new MockComputeTransport(new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                if( !isList(url) ) {
+                    return MockComputeTransport.json(operation(getName(url), "RUNNING"));
+                }
+                List<Operation> items = new ArrayList<Operation>();
+
+                for( String name : getFilteredNames(url) ) {
+                    items.add(operation(name, "RUNNING"));
+                }
+                return MockComputeTransport.json(new OperationList().setItems(items));
+            }
+        });
+        OperationTracker tracker = new OperationTracker(scheduler, true, 200L, 20L, 40L);
+        Compute gce = transport.newCompute();
+        Future<Operation> first = tracker.track(gce, PROJECT, operation("op-1", "PENDING"), GoogleOperationType.GLOBAL_OPERATION, null, null);
+        Future<Operation> second = tracker.track(gce, PROJECT, operation("op-2", "PENDING"), GoogleOperationType.GLOBAL_OPERATION, null, null);
+
+        for( Future<Operation> future : Arrays.asList(first, second) ) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("The operation did not time out");
+            }
+            catch( ExecutionException ex ) {
+                assertEquals(408, ((CloudException)ex.getCause()).getHttpCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.compute.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mock;
+import mockit.MockUp;
+
+import org.dasein.cloud.CloudException;
+import org.dasein.cloud.CloudProvider;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.compute.VMLaunchOptions;
+import org.dasein.cloud.compute.VirtualMachine;
+import org.dasein.cloud.google.Google;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.Disk;
+
+/**
+ * Launches a large batch through {@link ServerSupport#launchMany(VMLaunchOptions, int)} with each single launch
+ * stubbed out, to check that no more than the configured number of launches run at once and that ids are handed
+ * back while the rest of the batch is still launching. With every launch held open, the threads waiting on the
+ * batch must use next to no CPU.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class ServerSupportLaunchManyTest {
+    static private final String PROJECT = "test-project";
+    static private final int COUNT = 500;
+    static private final int PARALLELISM = 8;
+
+    @Injectable
+    private ProviderContext context;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicBoolean validated = new AtomicBoolean();
+    // every launch but the first waits here until the caller has received an id
+    private final CountDownLatch firstDelivered = new CountDownLatch(1);
+    // every launch waits here while a test holds the batch open
+    private volatile CountDownLatch held = new CountDownLatch(0);
+
+    private VMLaunchOptions options;
+
+    @Before
+    public void setUp() {
+        new Expectations() {{
+            context.getAccountNumber(); result = PROJECT; minTimes = 0;
+        }};
+        new MockUp<CloudProvider>() {
+            @Mock
+            ProviderContext getContext() {
+                return context;
+            }
+        };
+        new MockUp<Google>() {
+            @Mock
+            int getLaunchParallelism() {
+                return PARALLELISM;
+            }
+
+            @Mock
+            Compute getGoogleCompute() {
+                return null;
+            }
+        };
+        new MockUp<ServerSupport>() {
+            private final Random random = new Random();
+
+            @Mock
+            Map<String, Disk> listDisksBySelfLink(Compute gce) {
+                return Collections.emptyMap();
+            }
+
+            @Mock
+            VirtualMachine launch(VMLaunchOptions withLaunchOptions, boolean validate) throws CloudException, InterruptedException {
+                int running = inFlight.incrementAndGet();
+
+                try {
+                    if( validate ) {
+                        validated.set(true);
+                    }
+                    if( !held.await(30, TimeUnit.SECONDS) ) {
+                        throw new CloudException("The batch was never released");
+                    }
+                    while( true ) {
+                        int max = maxInFlight.get();
+
+                        if( running <= max || maxInFlight.compareAndSet(max, running) ) {
+                            break;
+                        }
+                    }
+                    if( !withLaunchOptions.getFriendlyName().equals("web-1") ) {
+                        if( !firstDelivered.await(30, TimeUnit.SECONDS) ) {
+                            throw new CloudException("No id was handed back before the batch finished");
+                        }
+                        Thread.sleep(1 + random.nextInt(3));
+                    }
+                    VirtualMachine vm = new VirtualMachine();
+
+                    // the friendly names are numbered by launchMany, so they tell the VMs of the batch apart
+                    vm.setProviderVirtualMachineId("vm_" + withLaunchOptions.getFriendlyName());
+                    vm.setName(withLaunchOptions.getHostName());
+                    return vm;
+                }
+                finally {
+                    completed.incrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+        options = VMLaunchOptions.getInstance("n1-standard-1", "debian-8", "web", "web", "launchMany test");
+        LaunchPlan.put(LaunchPlan.getKey(PROJECT, options), new LaunchPlan("machineTypes/n1-standard-1", "images/debian-8", 10L, false, "networks/default"));
+    }
+
+    @Test
+    public void capsInFlightLaunchesAndStreamsIds() throws Exception {
+        Iterable<String> ids = new ServerSupport(new Google()).launchMany(options, COUNT);
+        Set<String> received = new HashSet<String>();
+        int completedAtFirstId = -1;
+
+        for( String id : ids ) {
+            if( completedAtFirstId < 0 ) {
+                completedAtFirstId = completed.get();
+                firstDelivered.countDown();
+            }
+            assertTrue("Duplicate id " + id, received.add(id));
+        }
+        assertEquals(COUNT, received.size());
+        for( int i = 1; i <= COUNT; i++ ) {
+            assertTrue(received.contains("vm_web-" + i));
+        }
+        assertTrue("The first id arrived only after " + completedAtFirstId + " launches", completedAtFirstId < PARALLELISM);
+        assertEquals(PARALLELISM, maxInFlight.get());
+        assertFalse("The batch was validated per VM", validated.get());
+    }
+
+    /**
+     * @return the CPU time used so far by each live thread, in nanoseconds
+     */
+    static private @Nonnull Map<Long, Long> getCpuTimes(@Nonnull ThreadMXBean threads) {
+        Map<Long, Long> times = new HashMap<Long, Long>();
+
+        for( long id : threads.getAllThreadIds() ) {
+            long time = threads.getThreadCpuTime(id);
+
+            if( time >= 0L ) {
+                times.put(id, time);
+            }
+        }
+        return times;
+    }
+
+    @Test
+    public void waitsWithoutSpinningWhileLaunchesAreHeld() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        assumeTrue(threads.isThreadCpuTimeSupported());
+        threads.setThreadCpuTimeEnabled(true);
+        held = new CountDownLatch(1);
+        firstDelivered.countDown();
+
+        Set<Long> existing = getCpuTimes(threads).keySet();
+        final Iterable<String> ids = new ServerSupport(new Google()).launchMany(options, COUNT);
+        final AtomicInteger consumed = new AtomicInteger();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for( String ignored : ids ) {
+                    consumed.incrementAndGet();
+                }
+            }
+        }, "launch-many-consumer");
+
+        consumer.start();
+        long waitUntil = System.currentTimeMillis() + 10000L;
+
+        while( inFlight.get() < PARALLELISM && System.currentTimeMillis() < waitUntil ) {
+            Thread.sleep(10L);
+        }
+        assertEquals(PARALLELISM, inFlight.get());
+
+        // with every launch held, the consumer and the populator have nothing to do but wait
+        Map<Long, Long> before = getCpuTimes(threads);
+        long wallStart = System.nanoTime();
+
+        Thread.sleep(1000L);
+        Map<Long, Long> after = getCpuTimes(threads);
+        long wall = System.nanoTime() - wallStart;
+        long cpu = 0L;
+
+        for( Map.Entry<Long, Long> entry : after.entrySet() ) {
+            if( !existing.contains(entry.getKey()) && before.containsKey(entry.getKey()) ) {
+                cpu += entry.getValue() - before.get(entry.getKey());
+            }
+        }
+        held.countDown();
+        consumer.join(60000L);
+        assertFalse("The consumer did not finish", consumer.isAlive());
+        assertEquals(COUNT, consumed.get());
+        assertTrue("Waiting threads used " + (cpu / 1000000L) + "ms of CPU in " + (wall / 1000000L) + "ms", cpu < wall / 10L);
+    }
+}
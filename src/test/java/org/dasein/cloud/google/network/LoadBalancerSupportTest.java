@@ -0,0 +1,445 @@
+/**
+ * Copyright (C) 2012-2015 Dell, Inc
+ * See annotations for authorship information
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+
+package org.dasein.cloud.google.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mock;
+import mockit.MockUp;
+
+import org.dasein.cloud.CloudProvider;
+import org.dasein.cloud.ProviderContext;
+import org.dasein.cloud.compute.VirtualMachine;
+import org.dasein.cloud.google.Google;
+import org.dasein.cloud.google.MockComputeTransport;
+import org.dasein.cloud.google.compute.server.ServerSupport;
+import org.dasein.cloud.network.HealthCheckOptions;
+import org.dasein.cloud.network.LbAlgorithm;
+import org.dasein.cloud.network.LbListener;
+import org.dasein.cloud.network.LbPersistence;
+import org.dasein.cloud.network.LbProtocol;
+import org.dasein.cloud.network.LoadBalancerHealthCheck;
+import org.dasein.cloud.util.APITrace;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.compute.Compute;
+import com.google.api.services.compute.model.ForwardingRule;
+import com.google.api.services.compute.model.ForwardingRuleList;
+import com.google.api.services.compute.model.HealthCheckReference;
+import com.google.api.services.compute.model.HttpHealthCheck;
+import com.google.api.services.compute.model.InstanceReference;
+import com.google.api.services.compute.model.Operation;
+import com.google.api.services.compute.model.TargetPool;
+import com.google.api.services.compute.model.TargetPoolsAddHealthCheckRequest;
+import com.google.api.services.compute.model.TargetPoolsAddInstanceRequest;
+import com.google.api.services.compute.model.TargetPoolsRemoveInstanceRequest;
+
+/**
+ * Drives one {@link LoadBalancerSupport} from many threads at once against an in-memory Compute endpoint. Each
+ * thread manages its own target pool and health check, so any request reaching another thread's resources, or a
+ * pool ending up with the wrong members, forwarding rules or health check, means state leaked between concurrent
+ * calls. With a fixed latency on every request, many threads must also get through far more work per second than one.
+ * @version 2015.10 initial version
+ * @since 2015.10
+ */
+public class LoadBalancerSupportTest {
+    static private final String PROJECT = "test-project";
+    static private final String REGION = "us-central1";
+    static private final String ZONE = "us-central1-a";
+    static private final String BASE = "https://www.googleapis.com/compute/v1/projects/" + PROJECT;
+    static private final String REGION_PATH = "/compute/v1/projects/" + PROJECT + "/regions/" + REGION + "/";
+    static private final String GLOBAL_PATH = "/compute/v1/projects/" + PROJECT + "/global/";
+
+    static private final int THREADS = 16;
+    static private final int ITERATIONS = 20;
+    static private final int TIMED_ITERATIONS = 5;
+    static private final long LATENCY = 5L;
+
+    @Injectable
+    private ProviderContext context;
+
+    // the state of the fake project: members, forwarding rules and health checks of each target pool
+    private final Map<String, Set<String>> members = new ConcurrentHashMap<String, Set<String>>();
+    private final Map<String, ForwardingRule> rules = new ConcurrentHashMap<String, ForwardingRule>();
+    private final Map<String, HttpHealthCheck> healthChecks = new ConcurrentHashMap<String, HttpHealthCheck>();
+    private final Map<String, Set<String>> attachedHealthChecks = new ConcurrentHashMap<String, Set<String>>();
+    private final Queue<String> crossTalk = new ConcurrentLinkedQueue<String>();
+    private final AtomicInteger operations = new AtomicInteger();
+
+    // how long the fake endpoint takes to answer each request, in milliseconds
+    private volatile long latency = 0L;
+
+    private LoadBalancerSupport support;
+
+    static private @Nonnull String getPoolName(int thread) {
+        return "lb-" + thread;
+    }
+
+    static private @Nonnull String getPoolLink(@Nonnull String pool) {
+        return BASE + "/regions/" + REGION + "/targetPools/" + pool;
+    }
+
+    static private @Nonnull String getHealthCheckName(int thread) {
+        return "hc-" + thread;
+    }
+
+    static private @Nonnull String getHealthCheckLink(@Nonnull String healthCheck) {
+        return BASE + "/global/httpHealthChecks/" + healthCheck;
+    }
+
+    static private @Nonnull String getVmName(int thread, int iteration, @Nonnull String suffix) {
+        return "vm-" + thread + "-" + iteration + "-" + suffix;
+    }
+
+    static private @Nonnull String getInstanceLink(@Nonnull String vmName) {
+        return BASE + "/zones/" + ZONE + "/instances/" + vmName;
+    }
+
+    @Before
+    public void setUp() {
+        final Compute gce = new MockComputeTransport(new MockComputeTransport.Handler() {
+            @Override
+            public @Nonnull MockLowLevelHttpResponse handle(@Nonnull String method, @Nonnull GenericUrl url, @Nonnull String content) throws IOException {
+                if( latency > 0L ) {
+                    try {
+                        Thread.sleep(latency);
+                    }
+                    catch( InterruptedException e ) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while answering " + method + " " + url);
+                    }
+                }
+                return respond(method, url.getRawPath(), content);
+            }
+        }).newCompute();
+
+        new Expectations() {{
+            context.getAccountNumber(); result = PROJECT; minTimes = 0;
+            context.getRegionId(); result = REGION; minTimes = 0;
+        }};
+        new MockUp<CloudProvider>() {
+            @Mock
+            ProviderContext getContext() {
+                return context;
+            }
+        };
+        new MockUp<Google>() {
+            @Mock
+            Compute getGoogleCompute() {
+                return gce;
+            }
+        };
+        new MockUp<APITrace>() {
+            @Mock
+            void begin(CloudProvider provider, String operationName) { }
+
+            @Mock
+            void end() { }
+        };
+        new MockUp<ServerSupport>() {
+            @Mock
+            VirtualMachine getVirtualMachine(String vmId) {
+                VirtualMachine vm = new VirtualMachine();
+                String name = vmId.substring(0, vmId.indexOf('_'));
+
+                vm.setProviderVirtualMachineId(vmId);
+                vm.setName(name);
+                vm.setProviderRegionId(REGION);
+                vm.setProviderDataCenterId(ZONE);
+                vm.setTag("contentLink", getInstanceLink(name));
+                return vm;
+            }
+        };
+        for( int t = 0; t < THREADS; t++ ) {
+            addPool(t);
+        }
+        support = new LoadBalancerSupport(new Google());
+    }
+
+    /**
+     * Creates the empty target pool of a thread, fronted by one forwarding rule.
+     */
+    private void addPool(int thread) {
+        String pool = getPoolName(thread);
+        ForwardingRule rule = new ForwardingRule().setName(pool + "-0").setIPAddress("10.0.0." + thread).setIPProtocol("TCP").setPortRange("80-80").setTarget(getPoolLink(pool));
+
+        members.put(pool, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+        attachedHealthChecks.put(pool, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+        rules.put(rule.getName(), rule);
+    }
+
+    /**
+     * Serves the target pool and forwarding rule calls of the fake region and the health check calls of the project.
+     */
+    private @Nonnull MockLowLevelHttpResponse respond(@Nonnull String method, @Nonnull String path, @Nonnull String content) throws IOException {
+        if( path.startsWith(GLOBAL_PATH + "httpHealthChecks") ) {
+            return respondHealthCheck(method, path.substring(GLOBAL_PATH.length()).split("/"), content);
+        }
+        if( !path.startsWith(REGION_PATH) ) {
+            return MockComputeTransport.error(404, "Unexpected request " + method + " " + path);
+        }
+        String[] parts = path.substring(REGION_PATH.length()).split("/");
+
+        if( parts[0].equals("targetPools") && parts.length >= 2 ) {
+            Set<String> pool = members.get(parts[1]);
+
+            if( pool == null ) {
+                return MockComputeTransport.error(404, "The resource 'targetPools/" + parts[1] + "' was not found");
+            }
+            if( parts.length == 2 && method.equals("GET") ) {
+                return MockComputeTransport.json(new TargetPool().setName(parts[1]).setSelfLink(getPoolLink(parts[1])).setInstances(new ArrayList<String>(pool)));
+            }
+            if( parts.length == 3 && parts[2].equals("addInstance") ) {
+                for( InstanceReference ref : MockComputeTransport.JSON.fromString(content, TargetPoolsAddInstanceRequest.class).getInstances() ) {
+                    checkOwner(parts[1], ref.getInstance());
+                    pool.add(ref.getInstance());
+                }
+                return done();
+            }
+            if( parts.length == 3 && parts[2].equals("removeInstance") ) {
+                for( InstanceReference ref : MockComputeTransport.JSON.fromString(content, TargetPoolsRemoveInstanceRequest.class).getInstances() ) {
+                    checkOwner(parts[1], ref.getInstance());
+                    pool.remove(ref.getInstance());
+                }
+                return done();
+            }
+            if( parts.length == 3 && parts[2].equals("addHealthCheck") ) {
+                for( HealthCheckReference ref : MockComputeTransport.JSON.fromString(content, TargetPoolsAddHealthCheckRequest.class).getHealthChecks() ) {
+                    String healthCheck = ref.getHealthCheck().substring(ref.getHealthCheck().lastIndexOf('/') + 1);
+
+                    if( !healthCheck.equals("hc-" + parts[1].substring("lb-".length())) ) {
+                        crossTalk.add("Health check " + healthCheck + " attached to " + parts[1]);
+                    }
+                    attachedHealthChecks.get(parts[1]).add(ref.getHealthCheck());
+                }
+                return done();
+            }
+        }
+        else if( parts[0].equals("forwardingRules") ) {
+            if( parts.length == 1 && method.equals("GET") ) {
+                return MockComputeTransport.json(new ForwardingRuleList().setItems(new ArrayList<ForwardingRule>(rules.values())));
+            }
+            if( parts.length == 1 && method.equals("POST") ) {
+                ForwardingRule rule = MockComputeTransport.JSON.fromString(content, ForwardingRule.class);
+                String pool = rule.getTarget().substring(rule.getTarget().lastIndexOf('/') + 1);
+
+                if( !rule.getName().startsWith(pool + "-") ) {
+                    crossTalk.add("Rule " + rule.getName() + " targets " + pool);
+                }
+                if( rules.put(rule.getName(), rule) != null ) {
+                    crossTalk.add("Rule " + rule.getName() + " was created twice");
+                }
+                return done();
+            }
+            if( parts.length == 2 && method.equals("GET") ) {
+                ForwardingRule rule = rules.get(parts[1]);
+
+                if( rule != null ) {
+                    return MockComputeTransport.json(rule);
+                }
+                return MockComputeTransport.error(404, "The resource 'forwardingRules/" + parts[1] + "' was not found");
+            }
+        }
+        return MockComputeTransport.error(400, "Unexpected request " + method + " " + path);
+    }
+
+    /**
+     * Serves the global health check calls: creating, reading and replacing one health check.
+     */
+    private @Nonnull MockLowLevelHttpResponse respondHealthCheck(@Nonnull String method, @Nonnull String[] parts, @Nonnull String content) throws IOException {
+        if( parts.length == 1 && method.equals("POST") ) {
+            HttpHealthCheck hc = MockComputeTransport.JSON.fromString(content, HttpHealthCheck.class);
+
+            hc.setSelfLink(getHealthCheckLink(hc.getName()));
+            if( healthChecks.put(hc.getName(), hc) != null ) {
+                crossTalk.add("Health check " + hc.getName() + " was created twice");
+            }
+            return done();
+        }
+        if( parts.length == 2 ) {
+            HttpHealthCheck existing = healthChecks.get(parts[1]);
+
+            if( existing == null ) {
+                return MockComputeTransport.error(404, "The resource 'httpHealthChecks/" + parts[1] + "' was not found");
+            }
+            if( method.equals("GET") ) {
+                return MockComputeTransport.json(existing);
+            }
+            if( method.equals("PUT") ) {
+                HttpHealthCheck hc = MockComputeTransport.JSON.fromString(content, HttpHealthCheck.class);
+
+                if( !parts[1].equals(hc.getName()) ) {
+                    crossTalk.add("Health check " + hc.getName() + " written over " + parts[1]);
+                }
+                healthChecks.put(parts[1], hc.setSelfLink(getHealthCheckLink(parts[1])));
+                return done();
+            }
+        }
+        return MockComputeTransport.error(400, "Unexpected request " + method + " httpHealthChecks " + parts.length);
+    }
+
+    private @Nonnull MockLowLevelHttpResponse done() throws IOException {
+        return MockComputeTransport.json(new Operation().setName("operation-" + operations.incrementAndGet()).setStatus("DONE"));
+    }
+
+    /**
+     * Records an instance sent to a pool other than the one its thread manages.
+     */
+    private void checkOwner(@Nonnull String pool, @Nonnull String instanceLink) {
+        String vmName = instanceLink.substring(instanceLink.lastIndexOf('/') + 1);
+
+        if( !vmName.startsWith("vm-" + pool.substring("lb-".length()) + "-") ) {
+            crossTalk.add("Instance " + vmName + " sent to " + pool);
+        }
+    }
+
+    /**
+     * Runs the workload of threads {@code first} to {@code first + count - 1}, each on its own thread and all
+     * started at once: a health check created and attached to the thread's pool, then per iteration servers added
+     * and removed, a listener added and the health check modified.
+     * @return the wall time taken by the whole batch, in nanoseconds
+     */
+    private long runWorkload(int first, int count, final int iterations) throws Exception {
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+        final CountDownLatch go = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(count);
+
+        for( int t = first; t < first + count; t++ ) {
+            final int thread = t;
+
+            threads.submit(new Runnable() {
+                @Override
+                public void run() {
+                    String pool = getPoolName(thread);
+                    String healthCheck = getHealthCheckName(thread);
+
+                    try {
+                        go.await();
+                        support.createLoadBalancerHealthCheck(healthCheck, "created", null, LoadBalancerHealthCheck.HCProtocol.HTTP, 80, "/", 5, 5, 2, 2);
+                        support.attachHealthCheckToLoadBalancer(pool, healthCheck);
+                        for( int i = 0; i < iterations; i++ ) {
+                            String kept = getVmName(thread, i, "kept");
+                            String dropped = getVmName(thread, i, "dropped");
+
+                            support.addServers(pool, kept + "_" + i, dropped + "_" + i);
+                            support.removeServers(pool, dropped + "_" + i);
+                            support.addListeners(pool, new LbListener[] { LbListener.getInstance(LbAlgorithm.SOURCE, LbPersistence.SUBNET, LbProtocol.RAW_TCP, 8000 + i, 8000 + i) });
+                            support.modifyHealthCheck(healthCheck, HealthCheckOptions.getInstance(healthCheck, "iteration " + i, pool, null, LoadBalancerHealthCheck.HCProtocol.HTTP, 8000 + i, "/", 5, 5, 2, 2));
+                        }
+                    }
+                    catch( Throwable ex ) {
+                        failures.add(ex);
+                    }
+                }
+            });
+        }
+        long started = System.nanoTime();
+
+        go.countDown();
+        threads.shutdown();
+        assertTrue("The threads did not finish in time", threads.awaitTermination(2, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - started;
+
+        if( !failures.isEmpty() ) {
+            throw new AssertionError(failures.peek());
+        }
+        return elapsed;
+    }
+
+    @Test
+    public void concurrentCallsOnOneInstanceStayIsolated() throws Exception {
+        runWorkload(0, THREADS, ITERATIONS);
+        assertTrue("Calls leaked between threads: " + crossTalk, crossTalk.isEmpty());
+
+        for( int t = 0; t < THREADS; t++ ) {
+            String pool = getPoolName(t);
+            Set<String> expected = new HashSet<String>();
+            List<String> ruleNames = new ArrayList<String>();
+
+            for( int i = 0; i < ITERATIONS; i++ ) {
+                expected.add(getInstanceLink(getVmName(t, i, "kept")));
+            }
+            assertEquals(expected, new HashSet<String>(members.get(pool)));
+            for( ForwardingRule rule : rules.values() ) {
+                if( rule.getTarget().equals(getPoolLink(pool)) ) {
+                    assertEquals("10.0.0." + t, rule.getIPAddress());
+                    ruleNames.add(rule.getName());
+                }
+            }
+            // the existing rule plus one per listener added, numbered in sequence
+            assertEquals(ITERATIONS + 1, ruleNames.size());
+            for( int i = 0; i <= ITERATIONS; i++ ) {
+                assertTrue(ruleNames.contains(pool + "-" + i));
+            }
+            // the pool's own health check, as left by the last modification
+            HttpHealthCheck hc = healthChecks.get(getHealthCheckName(t));
+
+            assertEquals(Collections.singleton(getHealthCheckLink(getHealthCheckName(t))), new HashSet<String>(attachedHealthChecks.get(pool)));
+            assertEquals("iteration " + (ITERATIONS - 1), hc.getDescription());
+            assertEquals(Integer.valueOf(8000 + ITERATIONS - 1), hc.getPort());
+        }
+    }
+
+    /**
+     * Times the same per-thread workload on one thread and on many, with every request held for {@link #LATENCY}.
+     * Since the calls only wait on the endpoint, the many threads should take about as long as the one; the check
+     * only demands a quarter of that ideal speedup so that a loaded build machine does not fail it.
+     */
+    @Test
+    public void throughputScalesWithThreads() throws Exception {
+        int parallel = THREADS - 1;
+
+        // warm up on a spare pool so class loading does not count against the single thread
+        addPool(THREADS);
+        runWorkload(THREADS, 1, 1);
+
+        latency = LATENCY;
+        long single = runWorkload(0, 1, TIMED_ITERATIONS);
+        long many = runWorkload(1, parallel, TIMED_ITERATIONS);
+
+        assertTrue("Calls leaked between threads: " + crossTalk, crossTalk.isEmpty());
+        assertTrue(parallel + " threads took " + TimeUnit.NANOSECONDS.toMillis(many) + "ms against " + TimeUnit.NANOSECONDS.toMillis(single) + "ms for one", many * 4 < single * parallel);
+    }
+}